@@ -0,0 +1,68 @@
+// k6 load test for the commission API.
+// Usage: k6 run -e BASE_URL=http://localhost:8086 loadtest/calculate-fee.js
+//
+// Mix: fee calculation with rule selection (in-memory) and, when AUTH_TOKEN is
+// set, revenue reports (blocking JDBC reads). Arrival rate is fixed, so the
+// thread mode shows up in latency and in dropped iterations, not in offered load.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8086';
+const AUTH_TOKEN = __ENV.AUTH_TOKEN;
+const RATE = parseInt(__ENV.RATE || '2000', 10);
+const DURATION = __ENV.DURATION || '2m';
+
+export const options = {
+    scenarios: {
+        calculate: {
+            executor: 'constant-arrival-rate',
+            exec: 'calculate',
+            rate: AUTH_TOKEN ? Math.floor(RATE * 0.8) : RATE,
+            timeUnit: '1s',
+            duration: DURATION,
+            preAllocatedVUs: 200,
+            maxVUs: 2000,
+        },
+        ...(AUTH_TOKEN ? {
+            revenue: {
+                executor: 'constant-arrival-rate',
+                exec: 'revenue',
+                rate: Math.ceil(RATE * 0.2),
+                timeUnit: '1s',
+                duration: DURATION,
+                preAllocatedVUs: 100,
+                maxVUs: 1000,
+            },
+        } : {}),
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(90)', 'p(99)', 'max'],
+};
+
+// Amounts outside every rule get a 400; count them as answered, not failed
+http.setResponseCallback(http.expectedStatuses(200, 400));
+
+const TRANSFER_TYPES = ['SAME_WALLET', 'CROSS_WALLET', 'INTERNATIONAL'];
+const KYC_LEVELS = ['LEVEL_1', 'LEVEL_2', 'LEVEL_3'];
+
+export function calculate() {
+    const body = JSON.stringify({
+        amount: 1000 + Math.floor(Math.random() * 2000000),
+        currency: 'XOF',
+        transferType: TRANSFER_TYPES[Math.floor(Math.random() * TRANSFER_TYPES.length)],
+        kycLevel: KYC_LEVELS[Math.floor(Math.random() * KYC_LEVELS.length)],
+    });
+    const res = http.post(`${BASE_URL}/api/v1/commissions/calculate/auto`, body, {
+        headers: { 'Content-Type': 'application/json' },
+        tags: { endpoint: 'calculate' },
+    });
+    // 400 is an expected answer for amounts no rule covers
+    check(res, { 'calculate answered': (r) => r.status === 200 || r.status === 400 });
+}
+
+export function revenue() {
+    const res = http.get(`${BASE_URL}/api/v1/commissions/revenue?startDate=2025-01-01&endDate=2025-12-31&groupBy=DAY`, {
+        headers: { Authorization: `Bearer ${AUTH_TOKEN}` },
+        tags: { endpoint: 'revenue' },
+    });
+    check(res, { 'revenue answered': (r) => r.status === 200 });
+}
@@ -0,0 +1,46 @@
+#!/usr/bin/env bash
+# Compare p99 latency and throughput of the platform-thread and virtual-thread modes.
+#
+# Start two instances against the same database, Redis and Kafka:
+#   ./gradlew bootRun                                                              # platform threads, port 8086
+#   ./gradlew bootRun -PjavaVersion=21 --args='--spring.profiles.active=virtual-threads --server.port=8087'
+# then run:
+#   PLATFORM_URL=http://localhost:8086 VIRTUAL_URL=http://localhost:8087 loadtest/compare-thread-modes.sh
+#
+# Run the modes one after the other (not concurrently) so they do not compete for
+# the database. RATE, DURATION and AUTH_TOKEN are passed through to k6.
+set -euo pipefail
+
+PLATFORM_URL=${PLATFORM_URL:-http://localhost:8086}
+VIRTUAL_URL=${VIRTUAL_URL:-http://localhost:8087}
+OUT_DIR=${OUT_DIR:-build/reports/loadtest}
+SCRIPT_DIR=$(cd "$(dirname "$0")" && pwd)
+
+mkdir -p "$OUT_DIR"
+
+run_mode() {
+    local mode=$1 url=$2
+    echo "Running $mode mode against $url" >&2
+    k6 run --quiet -e BASE_URL="$url" --summary-export "$OUT_DIR/$mode.json" "$SCRIPT_DIR/calculate-fee.js" >&2
+}
+
+summarize() {
+    local mode=$1
+    jq -r --arg mode "$mode" '[
+        $mode,
+        (.metrics.http_reqs.rate | floor),
+        (.metrics.http_req_duration["p(50)"] * 100 | round / 100),
+        (.metrics.http_req_duration["p(99)"] * 100 | round / 100),
+        (.metrics.http_req_failed.value * 10000 | round / 100),
+        (.metrics.dropped_iterations.count // 0)
+    ] | @tsv' "$OUT_DIR/$mode.json"
+}
+
+run_mode platform "$PLATFORM_URL"
+run_mode virtual "$VIRTUAL_URL"
+
+{
+    printf 'mode\treq/s\tp50 ms\tp99 ms\tfailed %%\tdropped\n'
+    summarize platform
+    summarize virtual
+} | column -t -s $'\t' | tee "$OUT_DIR/comparison.txt"
@@ -0,0 +1,47 @@
+-- Insert throughput and primary key index size: random UUIDv4 vs time-ordered UUIDv7 keys
+--
+-- Usage (against a database migrated to V11 or later, which provides uuid_generate_v7()):
+--   psql -v rows=5000000 -f loadtest/uuid-key-benchmark.sql commission_db
+--
+-- Keys are generated up front so that only the inserts into the indexed table
+-- are timed. Each table is filled with `rows` keys, then another 10% are
+-- inserted into the already large table, which is what steady ingestion sees.
+\set ON_ERROR_STOP on
+\if :{?rows}
+\else
+\set rows 5000000
+\endif
+
+DROP TABLE IF EXISTS uuid_bench_v4, uuid_bench_v7;
+CREATE TABLE uuid_bench_v4 (
+    commission_id   UUID PRIMARY KEY,
+    transaction_id  UUID NOT NULL,
+    amount          BIGINT NOT NULL,
+    created_at      TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+CREATE TABLE uuid_bench_v7 (LIKE uuid_bench_v4 INCLUDING ALL);
+
+CREATE TEMP TABLE keys_v4 AS SELECT n, gen_random_uuid() AS id FROM generate_series(1, :rows * 11 / 10) n;
+CREATE TEMP TABLE keys_v7 AS SELECT n, uuid_generate_v7() AS id FROM generate_series(1, :rows * 11 / 10) n;
+
+\timing on
+\echo 'Initial load, UUIDv4'
+INSERT INTO uuid_bench_v4 (commission_id, transaction_id, amount) SELECT id, gen_random_uuid(), n FROM keys_v4 WHERE n <= :rows ORDER BY n;
+\echo 'Initial load, UUIDv7'
+INSERT INTO uuid_bench_v7 (commission_id, transaction_id, amount) SELECT id, gen_random_uuid(), n FROM keys_v7 WHERE n <= :rows ORDER BY n;
+CHECKPOINT;
+\echo 'Steady-state inserts (+10%), UUIDv4'
+INSERT INTO uuid_bench_v4 (commission_id, transaction_id, amount) SELECT id, gen_random_uuid(), n FROM keys_v4 WHERE n > :rows ORDER BY n;
+\echo 'Steady-state inserts (+10%), UUIDv7'
+INSERT INTO uuid_bench_v7 (commission_id, transaction_id, amount) SELECT id, gen_random_uuid(), n FROM keys_v7 WHERE n > :rows ORDER BY n;
+\timing off
+
+ANALYZE uuid_bench_v4, uuid_bench_v7;
+SELECT indexrelname AS index_name,
+       pg_size_pretty(pg_relation_size(indexrelid)) AS index_size,
+       pg_relation_size(indexrelid) AS index_bytes
+FROM pg_stat_user_indexes
+WHERE relname IN ('uuid_bench_v4', 'uuid_bench_v7') AND indexrelname LIKE '%pkey'
+ORDER BY indexrelname;
+
+DROP TABLE uuid_bench_v4, uuid_bench_v7;
@@ -0,0 +1,60 @@
+package com.payment.commission.benchmark;
+
+import com.payment.commission.domain.model.BceaoTariff;
+import com.payment.commission.service.FeeCalculationEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for {@link FeeCalculationEngine#calculateBCEAOFee(Long)} and
+ * {@link FeeCalculationEngine#calculateBCEAOFees(long[])} (per call, 1024 amounts)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BceaoFeeBenchmark {
+
+    private static final int AMOUNT_COUNT = 1024;
+
+    private FeeCalculationEngine engine;
+    private long[] amounts;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        engine = new FeeCalculationEngine(null, null, null, null,
+                BceaoTariff.of(5_000L, 100L, new BigDecimal("0.005"), 1_000L));
+
+        SplittableRandom random = new SplittableRandom(42);
+        amounts = new long[AMOUNT_COUNT];
+        for (int i = 0; i < AMOUNT_COUNT; i++) {
+            amounts[i] = random.nextLong(1_000L, 2_000_000L);
+        }
+    }
+
+    @Benchmark
+    public Long calculateBCEAOFee() {
+        index = (index + 1) & (AMOUNT_COUNT - 1);
+        return engine.calculateBCEAOFee(amounts[index]);
+    }
+
+    @Benchmark
+    public long[] calculateBCEAOFees() {
+        return engine.calculateBCEAOFees(amounts);
+    }
+}
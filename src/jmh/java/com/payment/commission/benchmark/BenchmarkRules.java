@@ -0,0 +1,89 @@
+package com.payment.commission.benchmark;
+
+import com.payment.commission.domain.entity.CommissionRule;
+import com.payment.commission.repository.CommissionRuleRepository;
+import com.payment.common.enums.Currency;
+import com.payment.common.enums.KYCLevel;
+import com.payment.common.enums.TransferType;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Rule fixtures shared by the benchmarks
+ */
+final class BenchmarkRules {
+
+    static final long RANGE_WIDTH = 1_000L;
+
+    private BenchmarkRules() {
+    }
+
+    /**
+     * BCEAO standard rule from V3: 0.5% + 100 XOF, min 100, max 1,000
+     */
+    static CommissionRule bceaoStandardRule() {
+        return CommissionRule.builder()
+                .ruleId(UUID.randomUUID())
+                .currency(Currency.XOF)
+                .transferType(TransferType.SAME_WALLET)
+                .minTransaction(5_001L)
+                .kycLevel(KYCLevel.ANY)
+                .percentage(new BigDecimal("0.0050"))
+                .fixedAmount(100L)
+                .minAmount(100L)
+                .maxAmount(1_000L)
+                .isActive(true)
+                .priority(90)
+                .effectiveFrom(LocalDateTime.now().minusDays(1))
+                .description("BCEAO: 100 XOF + 0.5%, plafonné à 1,000 XOF")
+                .build();
+    }
+
+    /**
+     * Rules with disjoint transaction ranges of {@link #RANGE_WIDTH}, ordered by priority descending
+     * as returned by {@code findActiveRulesByCurrencyAndType}
+     */
+    static List<CommissionRule> disjointRules(int count) {
+        List<CommissionRule> rules = new ArrayList<>(count);
+        LocalDateTime effectiveFrom = LocalDateTime.now().minusDays(1);
+        for (int i = 0; i < count; i++) {
+            rules.add(CommissionRule.builder()
+                    .ruleId(UUID.randomUUID())
+                    .currency(Currency.XOF)
+                    .transferType(TransferType.SAME_WALLET)
+                    .minTransaction(i * RANGE_WIDTH)
+                    .maxTransaction(i * RANGE_WIDTH + RANGE_WIDTH - 1)
+                    .kycLevel(KYCLevel.ANY)
+                    .percentage(new BigDecimal("0.0050"))
+                    .fixedAmount(100L)
+                    .minAmount(100L)
+                    .maxAmount(1_000L)
+                    .isActive(true)
+                    .priority(count - i)
+                    .effectiveFrom(effectiveFrom)
+                    .build());
+        }
+        return rules;
+    }
+
+    /**
+     * In-memory repository answering rule queries with a fixed list and no database
+     */
+    static CommissionRuleRepository repositoryReturning(List<CommissionRule> rules) {
+        return (CommissionRuleRepository) Proxy.newProxyInstance(
+                CommissionRuleRepository.class.getClassLoader(),
+                new Class<?>[]{CommissionRuleRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findAll", "findActiveRulesByCurrencyAndType", "findActiveRulesByCurrency" -> rules;
+                    case "toString" -> "InMemoryCommissionRuleRepository";
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
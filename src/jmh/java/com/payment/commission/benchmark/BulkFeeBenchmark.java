@@ -0,0 +1,95 @@
+package com.payment.commission.benchmark;
+
+import com.payment.commission.domain.entity.CommissionRule;
+import com.payment.commission.domain.model.FeeSchedule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk pricing throughput of {@link FeeSchedule}, in amounts per second, against
+ * one {@link CommissionRule#calculateFee(Long)} call per amount
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkFeeBenchmark {
+
+    private static final int AMOUNT_COUNT = 1 << 20;
+
+    private CommissionRule rule;
+    private FeeSchedule schedule;
+    private long[] amounts;
+    private long[] fees;
+    private LongBuffer directAmounts;
+    private LongBuffer directFees;
+
+    @Setup
+    public void setUp() {
+        rule = BenchmarkRules.bceaoStandardRule();
+        schedule = rule.toFeeSchedule();
+
+        SplittableRandom random = new SplittableRandom(42);
+        amounts = new long[AMOUNT_COUNT];
+        for (int i = 0; i < AMOUNT_COUNT; i++) {
+            amounts[i] = random.nextLong(1_000L, 2_000_000L);
+        }
+        fees = new long[AMOUNT_COUNT];
+
+        directAmounts = directBuffer();
+        directAmounts.put(amounts).flip();
+        directFees = directBuffer();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(AMOUNT_COUNT)
+    public long[] array() {
+        schedule.calculate(amounts, fees);
+        return fees;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(AMOUNT_COUNT)
+    public LongBuffer directBufferAmounts() {
+        schedule.calculate(directAmounts.clear(), directFees.clear());
+        return directFees;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(AMOUNT_COUNT)
+    public long[] arrayForkJoin() {
+        schedule.calculateParallel(amounts, fees, ForkJoinPool.commonPool());
+        return fees;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(AMOUNT_COUNT)
+    public void boxedPerAmount(Blackhole blackhole) {
+        for (long amount : amounts) {
+            blackhole.consume(rule.calculateFee(amount));
+        }
+    }
+
+    private static LongBuffer directBuffer() {
+        return ByteBuffer.allocateDirect(AMOUNT_COUNT * Long.BYTES).order(ByteOrder.nativeOrder()).asLongBuffer();
+    }
+}
@@ -0,0 +1,61 @@
+package com.payment.commission.benchmark;
+
+import com.payment.commission.domain.entity.CommissionRule;
+import com.payment.common.enums.KYCLevel;
+import com.payment.common.enums.TransferType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link CommissionRule#calculateFee(Long)} and {@link CommissionRule#matches}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommissionRuleBenchmark {
+
+    private static final int AMOUNT_COUNT = 1024;
+
+    private CommissionRule rule;
+    private long[] amounts;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        rule = BenchmarkRules.bceaoStandardRule();
+        SplittableRandom random = new SplittableRandom(42);
+        amounts = new long[AMOUNT_COUNT];
+        for (int i = 0; i < AMOUNT_COUNT; i++) {
+            amounts[i] = random.nextLong(1_000L, 2_000_000L);
+        }
+    }
+
+    @Benchmark
+    public Long calculateFee() {
+        return rule.calculateFee(nextAmount());
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return rule.matches(nextAmount(), TransferType.SAME_WALLET, KYCLevel.LEVEL_2);
+    }
+
+    private long nextAmount() {
+        index = (index + 1) & (AMOUNT_COUNT - 1);
+        return amounts[index];
+    }
+}
@@ -0,0 +1,77 @@
+package com.payment.commission.benchmark;
+
+import com.payment.commission.domain.entity.CommissionRule;
+import com.payment.commission.service.FeeCalculationEngine;
+import com.payment.commission.service.rule.CompiledRule;
+import com.payment.commission.service.rule.RuleSnapshot;
+import com.payment.common.enums.Currency;
+import com.payment.common.enums.KYCLevel;
+import com.payment.common.enums.TransferType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link FeeCalculationEngine#findMatchingRule} over growing rule sets,
+ * against the interval-indexed {@link RuleSnapshot#match} that replaces it.
+ * Rule queries are answered by an in-memory repository so only the engine itself is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FeeCalculationEngineBenchmark {
+
+    private static final int AMOUNT_COUNT = 1024;
+
+    @Param({"10", "100", "10000"})
+    private int ruleCount;
+
+    private FeeCalculationEngine engine;
+    private RuleSnapshot snapshot;
+    private long[] matchingAmounts;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        List<CommissionRule> rules = BenchmarkRules.disjointRules(ruleCount);
+        engine = new FeeCalculationEngine(BenchmarkRules.repositoryReturning(rules), null, null, null, null);
+        snapshot = RuleSnapshot.compile(rules, 1L);
+
+        SplittableRandom random = new SplittableRandom(42);
+        matchingAmounts = new long[AMOUNT_COUNT];
+        for (int i = 0; i < AMOUNT_COUNT; i++) {
+            matchingAmounts[i] = random.nextLong(0L, ruleCount * BenchmarkRules.RANGE_WIDTH);
+        }
+    }
+
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public CommissionRule findMatchingRule() {
+        return engine.findMatchingRule(matchingAmounts[nextIndex()], Currency.XOF, TransferType.SAME_WALLET, KYCLevel.LEVEL_2);
+    }
+
+    @Benchmark
+    public CompiledRule matchIndexedRule() {
+        return snapshot.match(matchingAmounts[nextIndex()], Currency.XOF, TransferType.SAME_WALLET, KYCLevel.LEVEL_2);
+    }
+
+    private int nextIndex() {
+        index = (index + 1) & (AMOUNT_COUNT - 1);
+        return index;
+    }
+}
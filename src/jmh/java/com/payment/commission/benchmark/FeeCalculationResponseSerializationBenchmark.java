@@ -0,0 +1,120 @@
+package com.payment.commission.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.payment.commission.domain.entity.CommissionRule;
+import com.payment.commission.dto.response.CalculationDetails;
+import com.payment.commission.dto.response.FeeCalculationResult;
+import com.payment.commission.service.rule.CompiledRule;
+import com.payment.common.dto.common.ApiResponse;
+import com.payment.common.dto.commission.response.FeeCalculationResponse;
+import com.payment.common.enums.Currency;
+import com.payment.common.enums.TransferType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for the Jackson serialization of fee calculation responses: the shared
+ * {@link FeeCalculationResponse} with a calculation details map, against the typed
+ * {@link FeeCalculationResult} written by a pre-built writer as JSON or CBOR, all built per call
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FeeCalculationResponseSerializationBenchmark {
+
+    private static final long AMOUNT = 150_000L;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter resultWriter;
+    private ObjectWriter cborResultWriter;
+    private CommissionRule rule;
+    private CompiledRule compiledRule;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        resultWriter = objectMapper.writerFor(new TypeReference<ApiResponse<FeeCalculationResult>>() { });
+        cborResultWriter = objectMapper.copyWith(new CBORFactory())
+                .writerFor(new TypeReference<ApiResponse<FeeCalculationResult>>() { });
+
+        rule = BenchmarkRules.bceaoStandardRule();
+        compiledRule = CompiledRule.of(rule);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        Long feeAmount = rule.calculateFee(AMOUNT);
+
+        Map<String, Object> calculationDetails = new HashMap<>();
+        calculationDetails.put("ruleId", rule.getRuleId());
+        calculationDetails.put("transferType", rule.getTransferType());
+        calculationDetails.put("percentage", rule.getPercentage());
+        calculationDetails.put("fixedAmount", rule.getFixedAmount());
+        calculationDetails.put("minAmount", rule.getMinAmount());
+        calculationDetails.put("maxAmount", rule.getMaxAmount());
+        calculationDetails.put("priority", rule.getPriority());
+        calculationDetails.put("kycLevel", rule.getKycLevel());
+        calculationDetails.put("finalAmount", feeAmount);
+        calculationDetails.put("ruleDescription", rule.getDescription());
+        calculationDetails.put("requestedAmount", AMOUNT);
+        calculationDetails.put("requestedCurrency", Currency.XOF);
+        calculationDetails.put("requestedTransferType", TransferType.SAME_WALLET);
+
+        FeeCalculationResponse response = FeeCalculationResponse.builder()
+                .amount(AMOUNT)
+                .currency(Currency.XOF)
+                .commissionAmount(feeAmount)
+                .ruleId(rule.getRuleId())
+                .transferType(TransferType.SAME_WALLET)
+                .calculationDetails(calculationDetails)
+                .build();
+        return objectMapper.writeValueAsBytes(ApiResponse.success("Fees calculated", response));
+    }
+
+    @Benchmark
+    public byte[] serializeTyped() throws Exception {
+        return resultWriter.writeValueAsBytes(ApiResponse.success("Fees calculated", typedResult()));
+    }
+
+    @Benchmark
+    public byte[] serializeTypedCbor() throws Exception {
+        return cborResultWriter.writeValueAsBytes(ApiResponse.success(null, typedResult()));
+    }
+
+    private FeeCalculationResult typedResult() {
+        long feeAmount = compiledRule.calculateFee(AMOUNT);
+
+        return FeeCalculationResult.builder()
+                .amount(AMOUNT)
+                .currency(Currency.XOF)
+                .commissionAmount(feeAmount)
+                .ruleId(compiledRule.getRuleId())
+                .transferType(TransferType.SAME_WALLET)
+                .calculationDetails(new CalculationDetails(
+                        compiledRule.getCalculationDetails(), feeAmount, AMOUNT, Currency.XOF, TransferType.SAME_WALLET))
+                .build();
+    }
+}
@@ -4,6 +4,7 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Payment Commission Service - Main Application
@@ -20,6 +21,7 @@ import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 @SpringBootApplication(scanBasePackages = {"com.payment.commission", "com.payment.common", "com.payment.security", "com.payment.kafka"})
 @EnableCaching
 @EnableJpaAuditing
+@EnableScheduling
 public class CommissionServiceApplication {
 
     public static void main(String[] args) {
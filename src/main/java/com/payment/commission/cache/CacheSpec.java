@@ -0,0 +1,42 @@
+package com.payment.commission.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Duration;
+
+/**
+ * Per-cache settings for the two-level cache, bound from the {@code cache.<name>.*} properties
+ */
+@Getter
+@Setter
+public class CacheSpec {
+
+    /**
+     * Time to live of entries in Redis (L2)
+     */
+    private long ttlSeconds = 3600;
+
+    /**
+     * Maximum number of entries kept in the local in-process cache (L1)
+     */
+    private long localMaxSize = 10_000;
+
+    /**
+     * Time to live of entries in the local in-process cache (L1)
+     */
+    private long localTtlSeconds = 300;
+
+    /**
+     * Whether the cache is backed by Redis; when disabled the cache is local only
+     */
+    private boolean redisEnabled = true;
+
+    public Duration getTtl() {
+        return Duration.ofSeconds(ttlSeconds);
+    }
+
+    public Duration getLocalTtl() {
+        return Duration.ofSeconds(localTtlSeconds);
+    }
+}
@@ -0,0 +1,188 @@
+package com.payment.commission.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.data.redis.cache.RedisCache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Two-level cache: a bounded Caffeine cache in front of an optional Redis cache.
+ *
+ * Reads go to the local cache first and fall back to Redis, promoting Redis hits
+ * into the local cache. Redis failures are logged and treated as misses so that
+ * an unavailable Redis never fails the request.
+ *
+ * Keys are hierarchical: an entry whose key starts with {@code "<key>:"} is
+ * derived from {@code <key>}, and evicting {@code <key>} also evicts every entry
+ * derived from it (e.g. evicting a rule ID evicts all fee results computed with it).
+ */
+@Slf4j
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    static final String SCOPE_SEPARATOR = ":";
+
+    private final String name;
+    private final Cache<Object, Object> localCache;
+    private final RedisCache remoteCache;
+
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+
+    public TwoLevelCache(String name, Cache<Object, Object> localCache, RedisCache remoteCache) {
+        super(false);
+        this.name = name;
+        this.localCache = localCache;
+        this.remoteCache = remoteCache;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return localCache;
+    }
+
+    public Cache<Object, Object> getLocalCache() {
+        return localCache;
+    }
+
+    public boolean isRemoteEnabled() {
+        return remoteCache != null;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object value = localCache.getIfPresent(key);
+        if (value != null) {
+            localHits.increment();
+            return value;
+        }
+
+        value = remoteGet(key);
+        if (value != null) {
+            remoteHits.increment();
+            localCache.put(key, value);
+            return value;
+        }
+
+        misses.increment();
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return (T) fromStoreValue(localCache.get(key, k -> {
+            Object value = remoteGet(k);
+            if (value != null) {
+                remoteHits.increment();
+                return value;
+            }
+            misses.increment();
+            try {
+                value = toStoreValue(valueLoader.call());
+            } catch (Exception e) {
+                throw new ValueRetrievalException(k, valueLoader, e);
+            }
+            remotePut(k, value);
+            puts.increment();
+            return value;
+        }));
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        Object storeValue = toStoreValue(value);
+        localCache.put(key, storeValue);
+        remotePut(key, storeValue);
+        puts.increment();
+    }
+
+    /**
+     * Evict the entry for the given key and every entry derived from it
+     */
+    @Override
+    public void evict(Object key) {
+        String scope = key + SCOPE_SEPARATOR;
+        evictLocal(key);
+
+        if (remoteCache != null) {
+            try {
+                remoteCache.evict(key);
+                remoteCache.clear(scope + "*");
+            } catch (RuntimeException e) {
+                log.warn("Failed to evict {} from Redis cache {}: {}", key, name, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Evict the entry for the given key and every entry derived from it from the local cache only,
+     * for changes already evicted from Redis by another instance
+     */
+    public void evictLocal(Object key) {
+        String scope = key + SCOPE_SEPARATOR;
+        localCache.invalidate(key);
+        localCache.asMap().keySet().removeIf(k -> k.toString().startsWith(scope));
+    }
+
+    @Override
+    public void clear() {
+        localCache.invalidateAll();
+        if (remoteCache != null) {
+            try {
+                remoteCache.clear();
+            } catch (RuntimeException e) {
+                log.warn("Failed to clear Redis cache {}: {}", name, e.getMessage());
+            }
+        }
+    }
+
+    long getLocalHits() {
+        return localHits.sum();
+    }
+
+    long getRemoteHits() {
+        return remoteHits.sum();
+    }
+
+    long getMisses() {
+        return misses.sum();
+    }
+
+    long getPuts() {
+        return puts.sum();
+    }
+
+    private Object remoteGet(Object key) {
+        if (remoteCache == null) {
+            return null;
+        }
+        try {
+            ValueWrapper wrapper = remoteCache.get(key);
+            return wrapper != null ? wrapper.get() : null;
+        } catch (RuntimeException e) {
+            log.warn("Redis cache {} unavailable on get, treating as miss: {}", name, e.getMessage());
+            return null;
+        }
+    }
+
+    private void remotePut(Object key, Object value) {
+        if (remoteCache == null) {
+            return;
+        }
+        try {
+            remoteCache.put(key, value);
+        } catch (RuntimeException e) {
+            log.warn("Redis cache {} unavailable on put: {}", name, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.payment.commission.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.Cache;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache manager building a {@link TwoLevelCache} per configured cache name.
+ *
+ * Caches are transaction aware: puts and evictions issued inside a transaction
+ * are applied after commit, so a concurrent reader cannot re-populate an entry
+ * from data that is about to change.
+ */
+public class TwoLevelCacheManager extends AbstractTransactionSupportingCacheManager {
+
+    private final RedisCacheManager redisCacheManager;
+    private final Map<String, CacheSpec> specs;
+    private final CacheSpec defaultSpec = new CacheSpec();
+
+    public TwoLevelCacheManager(RedisCacheManager redisCacheManager, Map<String, CacheSpec> specs) {
+        this.redisCacheManager = redisCacheManager;
+        this.specs = specs;
+        setTransactionAware(true);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        redisCacheManager.afterPropertiesSet();
+        super.afterPropertiesSet();
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        List<Cache> caches = new ArrayList<>(specs.size());
+        specs.forEach((name, spec) -> caches.add(createCache(name, spec)));
+        return caches;
+    }
+
+    @Override
+    protected Cache getMissingCache(String name) {
+        return createCache(name, defaultSpec);
+    }
+
+    private TwoLevelCache createCache(String name, CacheSpec spec) {
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> localCache = Caffeine.newBuilder()
+                .maximumSize(spec.getLocalMaxSize())
+                .expireAfterWrite(spec.getLocalTtl())
+                .recordStats()
+                .build();
+
+        RedisCache remoteCache = spec.isRedisEnabled()
+                ? (RedisCache) redisCacheManager.getCache(name)
+                : null;
+
+        return new TwoLevelCache(name, localCache, remoteCache);
+    }
+}
@@ -0,0 +1,65 @@
+package com.payment.commission.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+/**
+ * Micrometer binder for {@link TwoLevelCache}.
+ *
+ * Publishes the standard {@code cache.*} meters (a hit in either tier counts as a
+ * hit) plus {@code cache.tier.gets} hits broken down by tier, so local and Redis
+ * hit ratios can be told apart.
+ */
+public class TwoLevelCacheMetrics extends CacheMeterBinder<TwoLevelCache> {
+
+    public TwoLevelCacheMetrics(TwoLevelCache cache, Iterable<Tag> tags) {
+        super(cache, cache.getName(), tags);
+    }
+
+    @Override
+    protected Long size() {
+        TwoLevelCache cache = getCache();
+        return cache != null ? cache.getLocalCache().estimatedSize() : null;
+    }
+
+    @Override
+    protected long hitCount() {
+        TwoLevelCache cache = getCache();
+        return cache != null ? cache.getLocalHits() + cache.getRemoteHits() : 0L;
+    }
+
+    @Override
+    protected Long missCount() {
+        TwoLevelCache cache = getCache();
+        return cache != null ? cache.getMisses() : null;
+    }
+
+    @Override
+    protected Long evictionCount() {
+        TwoLevelCache cache = getCache();
+        return cache != null ? cache.getLocalCache().stats().evictionCount() : null;
+    }
+
+    @Override
+    protected long putCount() {
+        TwoLevelCache cache = getCache();
+        return cache != null ? cache.getPuts() : 0L;
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        TwoLevelCache cache = getCache();
+
+        FunctionCounter.builder("cache.tier.gets", cache, TwoLevelCache::getLocalHits)
+                .tags(getTagsWithCacheName()).tag("tier", "local").tag("result", "hit")
+                .description("Cache lookups served by the given tier")
+                .register(registry);
+
+        FunctionCounter.builder("cache.tier.gets", cache, TwoLevelCache::getRemoteHits)
+                .tags(getTagsWithCacheName()).tag("tier", "redis").tag("result", "hit")
+                .description("Cache lookups served by the given tier")
+                .register(registry);
+    }
+}
@@ -0,0 +1,26 @@
+package com.payment.commission.config;
+
+import com.payment.commission.domain.model.BceaoTariff;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.math.BigDecimal;
+
+/**
+ * BCEAO standard tariff configuration
+ */
+@Configuration
+public class BceaoTariffConfig {
+
+    /**
+     * Tariff compiled once from commission.bceao; an invalid tariff fails startup
+     */
+    @Bean
+    public BceaoTariff bceaoTariff(@Value("${commission.bceao.free-threshold:5000}") long freeThreshold,
+                                   @Value("${commission.bceao.fixed-fee:100}") long fixedFee,
+                                   @Value("${commission.bceao.percentage-fee:0.005}") BigDecimal percentageFee,
+                                   @Value("${commission.bceao.max-fee:1000}") long maxFee) {
+        return BceaoTariff.of(freeThreshold, fixedFee, percentageFee, maxFee);
+    }
+}
@@ -0,0 +1,23 @@
+package com.payment.commission.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+
+/**
+ * CBOR (application/cbor) encoding for internal callers
+ */
+@Configuration
+public class CborConfig {
+
+    /**
+     * Reads and writes application/cbor bodies with the settings and modules of the
+     * application's ObjectMapper, so CBOR and JSON payloads have the same fields
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2CborHttpMessageConverter(objectMapper.copyWith(new CBORFactory()));
+    }
+}
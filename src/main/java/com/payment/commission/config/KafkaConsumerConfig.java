@@ -0,0 +1,102 @@
+package com.payment.commission.config;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.ExponentialBackOff;
+
+import java.util.Map;
+
+/**
+ * Kafka consumer configuration for transaction events
+ */
+@Configuration
+@EnableKafka
+@ConditionalOnProperty(name = "spring.kafka.enabled", havingValue = "true", matchIfMissing = true)
+public class KafkaConsumerConfig {
+
+    /**
+     * Batch listener container for transaction events.
+     * Payloads are read as strings and bound by the listener so one malformed
+     * message cannot block the partition. Offsets are acknowledged manually,
+     * after the batch has been committed to the database.
+     *
+     * Failed batches are retried with back-off for as long as the failure is
+     * transient (database or buffer unavailable). Failures that a retry cannot fix
+     * send the batch to the dead letter topic, so the partition moves on; replaying
+     * it later is safe since commissions are recorded idempotently. Single events
+     * that cannot be recorded are dead-lettered by the listener itself.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, String> transactionEventListenerContainerFactory(
+            KafkaProperties kafkaProperties,
+            Environment environment,
+            DeadLetterPublishingRecoverer transactionEventDeadLetterRecoverer,
+            @Value("${commission.kafka.listener-concurrency:3}") int concurrency) {
+        Map<String, Object> props = kafkaProperties.buildConsumerProperties(null);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+
+        ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props));
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor listenerExecutor = new SimpleAsyncTaskExecutor("kafka-listener-");
+            listenerExecutor.setVirtualThreads(true);
+            factory.getContainerProperties().setListenerTaskExecutor(listenerExecutor);
+        }
+
+        // A transient failure (e.g. database down) is redelivered until it succeeds
+        ExponentialBackOff backOff = new ExponentialBackOff(1000L, 2.0);
+        backOff.setMaxInterval(60_000L);
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler(transactionEventDeadLetterRecoverer, backOff);
+        errorHandler.addNotRetryableExceptions(
+                NullPointerException.class, IllegalArgumentException.class, DataIntegrityViolationException.class);
+        factory.setCommonErrorHandler(errorHandler);
+
+        return factory;
+    }
+
+    /**
+     * Publishes transaction events to the dead letter topic, both for failed batches and for
+     * the events the listener finds no commission can be recorded for
+     */
+    @Bean
+    public DeadLetterPublishingRecoverer transactionEventDeadLetterRecoverer(
+            KafkaTemplate<String, String> deadLetterKafkaTemplate,
+            @Value("${commission.kafka.transaction-completed-dlt-topic:transaction.completed.DLT}") String deadLetterTopic) {
+        // Records keep their original partition key; the broker picks the dead letter partition
+        return new DeadLetterPublishingRecoverer(
+                deadLetterKafkaTemplate, (record, e) -> new TopicPartition(deadLetterTopic, -1));
+    }
+
+    /**
+     * Template republishing dead-lettered transaction events as their original strings
+     */
+    @Bean
+    public KafkaTemplate<String, String> deadLetterKafkaTemplate(KafkaProperties kafkaProperties) {
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(
+                kafkaProperties.buildProducerProperties(null), new StringSerializer(), new StringSerializer()));
+    }
+}
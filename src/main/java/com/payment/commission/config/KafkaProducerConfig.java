@@ -0,0 +1,33 @@
+package com.payment.commission.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+/**
+ * Kafka producer configuration for commission events
+ */
+@Configuration
+public class KafkaProducerConfig {
+
+    /**
+     * Template used by the outbox relay to publish commission events.
+     * Sends are asynchronous; batching (linger, batch size, compression), acks and
+     * idempotence come from spring.kafka.producer. Values are written as JSON with
+     * the application's ObjectMapper.
+     */
+    @Bean
+    public KafkaTemplate<String, Object> commissionEventKafkaTemplate(KafkaProperties kafkaProperties,
+                                                                      ObjectMapper objectMapper) {
+        DefaultKafkaProducerFactory<String, Object> producerFactory = new DefaultKafkaProducerFactory<>(
+                kafkaProperties.buildProducerProperties(null),
+                new StringSerializer(),
+                new JsonSerializer<>(objectMapper));
+        return new KafkaTemplate<>(producerFactory);
+    }
+}
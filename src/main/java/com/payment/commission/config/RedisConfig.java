@@ -6,25 +6,45 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
 import com.fasterxml.jackson.databind.jsontype.PolymorphicTypeValidator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.payment.commission.cache.CacheSpec;
+import com.payment.commission.cache.TwoLevelCache;
+import com.payment.commission.cache.TwoLevelCacheManager;
+import com.payment.commission.cache.TwoLevelCacheMetrics;
+import com.payment.commission.service.rule.RuleChangeBroadcaster;
+import io.lettuce.core.resource.ClientResources;
+import io.lettuce.core.resource.DefaultClientResources;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.redis.cache.BatchStrategies;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
- * Redis configuration for caching commission rules
+ * Redis configuration for caching commission rules and fee calculations
  */
 @Configuration
 @EnableCaching
@@ -39,11 +59,30 @@ public class RedisConfig {
     @Value("${spring.data.redis.password:}")
     private String redisPassword;
 
+    @Value("${spring.data.redis.timeout:PT2S}")
+    private Duration commandTimeout;
+
+    // Lettuce event loop threads; 0 keeps Lettuce's default (one per core, at least 2)
+    @Value("${commission.redis.io-threads:0}")
+    private int ioThreads;
+
     // Single instance of Redis ObjectMapper to ensure consistency
     private final ObjectMapper redisObjectMapper = createRedisObjectMapper();
 
+    /**
+     * Lettuce I/O resources shared by all Redis connections
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ClientResources lettuceClientResources() {
+        DefaultClientResources.Builder builder = DefaultClientResources.builder();
+        if (ioThreads > 0) {
+            builder.ioThreadPoolSize(ioThreads).computationThreadPoolSize(ioThreads);
+        }
+        return builder.build();
+    }
+
     @Bean
-    public LettuceConnectionFactory redisConnectionFactory() {
+    public LettuceConnectionFactory redisConnectionFactory(ClientResources lettuceClientResources) {
         RedisStandaloneConfiguration config = new RedisStandaloneConfiguration(redisHost, redisPort);
 
         // Set password if provided
@@ -51,7 +90,13 @@ public class RedisConfig {
             config.setPassword(redisPassword);
         }
 
-        return new LettuceConnectionFactory(config);
+        // One shared, pipelined connection serves all request threads, virtual or not
+        LettuceClientConfiguration clientConfig = LettuceClientConfiguration.builder()
+                .clientResources(lettuceClientResources)
+                .commandTimeout(commandTimeout)
+                .build();
+
+        return new LettuceConnectionFactory(config, clientConfig);
     }
 
     /**
@@ -91,18 +136,60 @@ public class RedisConfig {
         return template;
     }
 
+    /**
+     * Two-level cache manager: bounded local Caffeine cache (L1) backed by Redis (L2).
+     * Per-cache sizes and TTLs come from the {@code cache.<name>.*} properties.
+     */
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory, Environment environment) {
+        Map<String, CacheSpec> specs = Binder.get(environment)
+                .bind("cache", Bindable.mapOf(String.class, CacheSpec.class))
+                .orElseGet(Map::of);
+
         RedisCacheConfiguration cacheConfig = RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofHours(1)) // Cache TTL: 1 hour
+                .entryTtl(Duration.ofHours(1)) // Default cache TTL: 1 hour
                 .serializeValuesWith(
                         RedisSerializationContext.SerializationPair.fromSerializer(
                                 new GenericJackson2JsonRedisSerializer(redisObjectMapper)
                         )
                 );
 
-        return RedisCacheManager.builder(connectionFactory)
+        Map<String, RedisCacheConfiguration> redisCacheConfigs = new HashMap<>();
+        specs.forEach((name, spec) -> redisCacheConfigs.put(name, cacheConfig.entryTtl(spec.getTtl())));
+
+        // SCAN instead of KEYS when evicting derived entries by pattern
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(
+                        RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory, BatchStrategies.scan(1000)))
                 .cacheDefaults(cacheConfig)
+                .withInitialCacheConfigurations(redisCacheConfigs)
                 .build();
+
+        return new TwoLevelCacheManager(redisCacheManager, specs);
+    }
+
+    /**
+     * Export hit/miss/eviction metrics of the two-level caches to Micrometer
+     */
+    @Bean
+    public CacheMeterBinderProvider<TwoLevelCache> twoLevelCacheMeterBinderProvider() {
+        return TwoLevelCacheMetrics::new;
+    }
+
+    /**
+     * Subscribe to rule changes made on other instances
+     */
+    @Bean
+    public RedisMessageListenerContainer ruleChangeListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                     RuleChangeBroadcaster ruleChangeBroadcaster,
+                                                                     Environment environment) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor listenerExecutor = new SimpleAsyncTaskExecutor("rule-change-listener-");
+            listenerExecutor.setVirtualThreads(true);
+            container.setTaskExecutor(listenerExecutor);
+        }
+        container.addMessageListener(ruleChangeBroadcaster, new ChannelTopic(RuleChangeBroadcaster.CHANNEL));
+        return container;
     }
 }
@@ -24,6 +24,8 @@ public class SecurityConfig {
                         // Public endpoints
                         .requestMatchers(
                                 "/api/v1/commissions/calculate",
+                                "/api/v1/commissions/calculate/batch",
+                                "/api/v1/commissions/calculate/auto",
                                 "/api/v1/commissions/bceao-fee/**",
                                 "/api/v1/**",
                                 "/actuator/health",
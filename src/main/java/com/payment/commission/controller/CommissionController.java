@@ -1,20 +1,48 @@
 package com.payment.commission.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.payment.commission.domain.enums.CommissionStatus;
+import com.payment.commission.domain.enums.ExportFormat;
+import com.payment.commission.dto.request.AutoCalculateFeeRequest;
+import com.payment.commission.dto.request.CommissionExportRequest;
+import com.payment.commission.dto.response.BatchFeeCalculationResult;
+import com.payment.commission.dto.response.FeeCalculationResult;
 import com.payment.common.dto.commission.request.CalculateFeeRequest;
-import com.payment.common.dto.commission.response.FeeCalculationResponse;
+import com.payment.commission.service.CommissionExportService;
 import com.payment.commission.service.CommissionService;
+import com.payment.commission.service.metrics.CommissionMetrics;
+import com.payment.common.enums.Currency;
 import com.payment.common.i18n.MessageService;
 import com.payment.common.dto.common.ApiResponse;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * REST Controller for Commission operations
@@ -27,21 +55,169 @@ import java.util.Map;
 public class CommissionController {
 
     private final CommissionService commissionService;
+    private final CommissionExportService commissionExportService;
+    private final CommissionMetrics commissionMetrics;
+    private final FeeResponseWriter feeResponseWriter;
     private final MessageService messageService;
+    private final ObjectMapper objectMapper;
+
+    // Flush streamed batch results every this many items so clients see progress
+    private static final int BATCH_FLUSH_INTERVAL = 256;
+
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
 
     /**
      * Calculate transaction fee
      */
-    @PostMapping("/calculate")
-    @Operation(summary = "Calculate transaction fee", description = "Calculate commission fee for a transaction based on active rules")
-    public ResponseEntity<ApiResponse<FeeCalculationResponse>> calculateFee(@Valid @RequestBody CalculateFeeRequest request) {
-        log.info("Calculating fee for amount: {} {}", request.getAmount(), request.getCurrency());
+    @PostMapping(value = "/calculate",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    @Operation(summary = "Calculate transaction fee", description = "Calculate commission fee for a transaction based on active rules",
+            responses = @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200",
+                    content = @Content(schema = @Schema(implementation = FeeCalculationResult.class))))
+    public ResponseEntity<byte[]> calculateFee(
+            @Valid @RequestBody CalculateFeeRequest request,
+            @Parameter(description = "none to return only the fee") @RequestParam(required = false) String detail,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) throws IOException {
+        log.debug("Calculating fee for amount: {} {}", request.getAmount(), request.getCurrency());
 
-        FeeCalculationResponse response = commissionService.calculateFee(request);
+        FeeCalculationResult response = commissionMetrics.timeCalculation(
+                request.getCurrency(), request.getTransferType(), () -> commissionService.calculateFee(request));
 
-        return ResponseEntity.ok(
-            ApiResponse.success(messageService.getMessage("success.fee.calculated"), response)
-        );
+        return feeResponseWriter.write(response, detail, accept);
+    }
+
+    /**
+     * Calculate transaction fee, selecting the best matching rule when ruleId is omitted
+     */
+    @PostMapping(value = "/calculate/auto",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    @Operation(summary = "Calculate transaction fee with rule selection",
+            description = "Calculate commission fee using the given rule, or the highest priority rule matching the transaction when ruleId is omitted",
+            responses = @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200",
+                    content = @Content(schema = @Schema(implementation = FeeCalculationResult.class))))
+    public ResponseEntity<byte[]> calculateFeeAuto(
+            @Valid @RequestBody AutoCalculateFeeRequest request,
+            @Parameter(description = "none to return only the fee") @RequestParam(required = false) String detail,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) throws IOException {
+        log.debug("Calculating fee with rule selection for amount: {} {}", request.getAmount(), request.getCurrency());
+
+        FeeCalculationResult response = commissionMetrics.timeCalculation(
+                request.getCurrency(), request.getTransferType(), () -> commissionService.calculateFee(request));
+
+        return feeResponseWriter.write(response, detail, accept);
+    }
+
+    /**
+     * Calculate transaction fees for a JSON array of requests
+     */
+    @PostMapping(value = "/calculate/batch",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Calculate transaction fees in batch",
+            description = "Calculate commission fees for a list of transactions. Results are streamed as NDJSON in request order, with per-item errors")
+    public ResponseEntity<StreamingResponseBody> calculateFeesBatch(@RequestBody List<CalculateFeeRequest> requests) {
+        log.info("Calculating fees for batch of {} requests", requests.size());
+
+        return streamBatch(requests.iterator());
+    }
+
+    /**
+     * Calculate transaction fees for an NDJSON stream of requests
+     * The request body is read while results are written, so batch size is not bounded by memory
+     */
+    @PostMapping(value = "/calculate/batch",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Calculate transaction fees from an NDJSON stream",
+            description = "Calculate commission fees for one JSON request per line. Results are streamed as NDJSON in request order, with per-item errors")
+    public ResponseEntity<StreamingResponseBody> calculateFeesBatchStream(HttpServletRequest request) throws IOException {
+        log.info("Calculating fees for NDJSON batch stream");
+
+        MappingIterator<CalculateFeeRequest> requests = objectMapper.readerFor(CalculateFeeRequest.class)
+                .readValues(request.getInputStream());
+
+        return streamBatch(requests);
+    }
+
+    private ResponseEntity<StreamingResponseBody> streamBatch(Iterator<CalculateFeeRequest> requests) {
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter writer = objectMapper.writerFor(BatchFeeCalculationResult.class)
+                    .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .withRootValueSeparator("\n")
+                    .writeValues(outputStream)) {
+                commissionService.calculateFees(requests, result -> {
+                    try {
+                        writer.write(result);
+                        if ((result.getIndex() + 1) % BATCH_FLUSH_INTERVAL == 0) {
+                            writer.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+            outputStream.write('\n');
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Export commission transactions of a period
+     * Rows are streamed from a database cursor as they are read; the body is gzipped
+     * when the client accepts it.
+     */
+    @GetMapping(value = "/transactions/export", produces = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    @Operation(summary = "Export commission transactions",
+            description = "Stream all commission transactions created between two dates (inclusive) as NDJSON or CSV")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @RequestParam LocalDate startDate,
+            @RequestParam LocalDate endDate,
+            @RequestParam(required = false) Currency currency,
+            @RequestParam(required = false) CommissionStatus status,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        log.info("Exporting commission transactions from {} to {} as {}", startDate, endDate, format);
+
+        CommissionExportRequest request = CommissionExportRequest.builder()
+                .startDate(startDate)
+                .endDate(endDate)
+                .currency(currency)
+                .status(status)
+                .format(format)
+                .build();
+        commissionExportService.validate(request);
+
+        boolean gzip = acceptsGzip(acceptEncoding);
+        StreamingResponseBody body = outputStream -> {
+            if (gzip) {
+                GZIPOutputStream gzipStream = new GZIPOutputStream(outputStream, EXPORT_BUFFER_SIZE);
+                commissionExportService.export(request, gzipStream);
+                gzipStream.finish();
+            } else {
+                BufferedOutputStream buffered = new BufferedOutputStream(outputStream, EXPORT_BUFFER_SIZE);
+                commissionExportService.export(request, buffered);
+                buffered.flush();
+            }
+        };
+
+        String extension = format == ExportFormat.CSV ? "csv" : "ndjson";
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(format == ExportFormat.CSV
+                        ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                        : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("commissions-" + startDate + "-" + endDate + "." + extension)
+                        .build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
     }
 
     /**
@@ -50,7 +226,7 @@ public class CommissionController {
     @GetMapping("/bceao-fee/{amount}")
     @Operation(summary = "Calculate BCEAO fee", description = "Calculate fee using BCEAO standard rules (FREE ≤5000 XOF, else 100 + 0.5% max 1000)")
     public ResponseEntity<ApiResponse<Map<String, Object>>> calculateBCEAOFee(@PathVariable Long amount) {
-        log.info("Calculating BCEAO fee for amount: {}", amount);
+        log.debug("Calculating BCEAO fee for amount: {}", amount);
 
         Long fee = commissionService.calculateBCEAOFee(amount);
 
@@ -64,4 +240,38 @@ public class CommissionController {
             ApiResponse.success(messageService.getMessage("success.bceao.fee.calculated"), data)
         );
     }
+
+    /**
+     * Whether an Accept-Encoding header allows gzip, by its own entry or else by "*";
+     * a q-value of 0 refuses the coding
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double wildcardQuality = null;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim();
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.regionMatches(true, 0, "q=", 0, 2)) {
+                    try {
+                        quality = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0.0;
+                    }
+                }
+            }
+            if (coding.equalsIgnoreCase("gzip") || coding.equalsIgnoreCase("x-gzip")) {
+                gzipQuality = gzipQuality == null ? quality : Math.max(gzipQuality, quality);
+            } else if (coding.equals("*")) {
+                wildcardQuality = quality;
+            }
+        }
+        Double quality = gzipQuality != null ? gzipQuality : wildcardQuality;
+        return quality != null && quality > 0;
+    }
 }
@@ -1,7 +1,9 @@
 package com.payment.commission.controller;
 
 import com.payment.commission.dto.request.CreateRuleRequest;
+import com.payment.commission.dto.request.RuleSimulationRequest;
 import com.payment.commission.dto.request.UpdateRuleRequest;
+import com.payment.commission.dto.response.RuleSimulationResponse;
 import com.payment.commission.service.CommissionRuleService;
 import com.payment.common.dto.commission.response.CommissionRuleResponse;
 import com.payment.common.enums.Currency;
@@ -54,6 +56,23 @@ public class CommissionRuleController {
         );
     }
 
+    /**
+     * Simulate a candidate commission rule against historical commissions
+     */
+    @PostMapping("/simulate")
+    @Operation(summary = "Simulate commission rule",
+            description = "Re-price historical commissions under a candidate rule and its current counterpart, with daily fee deltas")
+    public ResponseEntity<ApiResponse<RuleSimulationResponse>> simulateRule(
+            @Valid @RequestBody RuleSimulationRequest request) {
+        log.info("Simulating commission rule from {} to {}", request.getStartDate(), request.getEndDate());
+
+        RuleSimulationResponse response = commissionRuleService.simulateRule(request);
+
+        return ResponseEntity.ok(
+            ApiResponse.success(messageService.getMessage("success.rule.simulated"), response)
+        );
+    }
+
     /**
      * Update an existing commission rule
      */
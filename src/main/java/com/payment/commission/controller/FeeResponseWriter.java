@@ -0,0 +1,123 @@
+package com.payment.commission.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.payment.commission.dto.response.FeeAmountResult;
+import com.payment.commission.dto.response.FeeCalculationResult;
+import com.payment.common.dto.common.ApiResponse;
+import com.payment.common.i18n.MessageService;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Encodes fee calculation responses on the calculate hot path.
+ * Writers for the response types are built once, so their root serializers are
+ * resolved at startup instead of per response, and the success message is resolved
+ * once per locale.
+ *
+ * Callers accepting application/cbor (internal services) get the same envelope and
+ * fields as CBOR, without the localized message; everyone else gets JSON.
+ */
+@Component
+public class FeeResponseWriter {
+
+    private static final String SUCCESS_MESSAGE = "success.fee.calculated";
+
+    /** Bounds the message cache, since locales come from the Accept-Language header */
+    private static final int MAX_CACHED_LOCALES = 16;
+
+    private final MessageService messageService;
+    private final ObjectWriter resultWriter;
+    private final ObjectWriter feeAmountWriter;
+    private final ObjectWriter cborResultWriter;
+    private final ObjectWriter cborFeeAmountWriter;
+    private final Map<Locale, String> successMessages = new ConcurrentHashMap<>();
+
+    public FeeResponseWriter(ObjectMapper objectMapper, MessageService messageService,
+                             MappingJackson2CborHttpMessageConverter cborHttpMessageConverter) {
+        this.messageService = messageService;
+        this.resultWriter = objectMapper.writerFor(new TypeReference<ApiResponse<FeeCalculationResult>>() { });
+        this.feeAmountWriter = objectMapper.writerFor(new TypeReference<ApiResponse<FeeAmountResult>>() { });
+        ObjectMapper cborMapper = cborHttpMessageConverter.getObjectMapper();
+        this.cborResultWriter = cborMapper.writerFor(new TypeReference<ApiResponse<FeeCalculationResult>>() { });
+        this.cborFeeAmountWriter = cborMapper.writerFor(new TypeReference<ApiResponse<FeeAmountResult>>() { });
+    }
+
+    /**
+     * Write a fee calculation result as JSON, or CBOR when the caller prefers it
+     * @param detail "none" to return only the fee, anything else for the full result
+     * @param accept Accept header of the request
+     */
+    public ResponseEntity<byte[]> write(FeeCalculationResult result, String detail, String accept)
+            throws JsonProcessingException {
+        boolean cbor = prefersCbor(accept);
+        boolean feeOnly = "none".equalsIgnoreCase(detail);
+
+        byte[] body;
+        if (cbor) {
+            body = feeOnly
+                    ? cborFeeAmountWriter.writeValueAsBytes(
+                            ApiResponse.success(null, new FeeAmountResult(result.getCommissionAmount())))
+                    : cborResultWriter.writeValueAsBytes(ApiResponse.success(null, result));
+        } else {
+            String message = successMessage();
+            body = feeOnly
+                    ? feeAmountWriter.writeValueAsBytes(
+                            ApiResponse.success(message, new FeeAmountResult(result.getCommissionAmount())))
+                    : resultWriter.writeValueAsBytes(ApiResponse.success(message, result));
+        }
+        return ResponseEntity.ok()
+                .contentType(cbor ? MediaType.APPLICATION_CBOR : MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .body(body);
+    }
+
+    /**
+     * Whether the most preferred acceptable type names CBOR explicitly; wildcards mean JSON
+     */
+    static boolean prefersCbor(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return false;
+        }
+        List<MediaType> mediaTypes = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        // Stable, so equally preferred types keep the caller's order
+        mediaTypes.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType mediaType : mediaTypes) {
+            if (mediaType.getQualityValue() == 0) {
+                continue;
+            }
+            if (!mediaType.isWildcardSubtype() && mediaType.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+                return true;
+            }
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private String successMessage() {
+        Locale locale = LocaleContextHolder.getLocale();
+        String message = successMessages.get(locale);
+        if (message == null) {
+            message = messageService.getMessage(SUCCESS_MESSAGE);
+            if (successMessages.size() < MAX_CACHED_LOCALES) {
+                successMessages.put(locale, message);
+            }
+        }
+        return message;
+    }
+}
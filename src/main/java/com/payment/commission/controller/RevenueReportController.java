@@ -1,5 +1,11 @@
 package com.payment.commission.controller;
 
+import com.payment.commission.domain.enums.RevenueGroupBy;
+import com.payment.commission.dto.request.RevenueReportRequest;
+import com.payment.commission.dto.response.RevenueReportResponse;
+import com.payment.commission.service.RevenueReportService;
+import com.payment.common.enums.Currency;
+import com.payment.common.enums.TransferType;
 import com.payment.common.i18n.MessageService;
 import com.payment.common.dto.common.ApiResponse;
 import io.swagger.v3.oas.annotations.Operation;
@@ -10,9 +16,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.UUID;
 
 /**
  * REST Controller for Revenue Reports
@@ -24,31 +27,32 @@ import java.util.UUID;
 @Tag(name = "Revenue Reports", description = "Commission revenue reporting APIs")
 public class RevenueReportController {
 
+    private final RevenueReportService revenueReportService;
     private final MessageService messageService;
 
     /**
      * Get revenue report
      */
     @GetMapping
-    @Operation(summary = "Get revenue report", description = "Get commission revenue report by provider, period, and currency")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> getRevenueReport(
-            @RequestParam(required = false) UUID providerId,
-            @RequestParam(required = false) String currency,
+    @Operation(summary = "Get revenue report", description = "Get commission revenue report by period, currency and transfer type")
+    public ResponseEntity<ApiResponse<RevenueReportResponse>> getRevenueReport(
+            @RequestParam(required = false) Currency currency,
+            @RequestParam(required = false) TransferType transferType,
             @RequestParam LocalDate startDate,
             @RequestParam LocalDate endDate,
-            @RequestParam(defaultValue = "PROVIDER") String groupBy) {
+            @RequestParam(defaultValue = "DAY") RevenueGroupBy groupBy) {
         log.info("Generating revenue report from {} to {} grouped by {}", startDate, endDate, groupBy);
 
-        // TODO: Implement revenue report generation
-        Map<String, Object> reportData = new HashMap<>();
-        reportData.put("reportPeriod", Map.of("startDate", startDate, "endDate", endDate));
-        reportData.put("totalRevenue", 0L);
-        reportData.put("transactionCount", 0L);
-        reportData.put("averageCommission", 0L);
-        reportData.put("message", messageService.getMessage("message.revenue.pending"));
+        RevenueReportResponse report = revenueReportService.generateReport(RevenueReportRequest.builder()
+                .currency(currency)
+                .transferType(transferType)
+                .startDate(startDate)
+                .endDate(endDate)
+                .groupBy(groupBy)
+                .build());
 
         return ResponseEntity.ok(
-            ApiResponse.success(messageService.getMessage("success.revenue.report"), reportData)
+            ApiResponse.success(messageService.getMessage("success.revenue.report"), report)
         );
     }
 }
@@ -0,0 +1,59 @@
+package com.payment.commission.controller;
+
+import com.payment.commission.dto.request.SettlementRequest;
+import com.payment.commission.dto.response.SettlementBatchResponse;
+import com.payment.commission.service.SettlementService;
+import com.payment.common.dto.common.ApiResponse;
+import com.payment.common.i18n.MessageService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+/**
+ * REST Controller for commission settlement
+ */
+@RestController
+@RequestMapping("/api/v1/commissions/settlements")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Settlements", description = "Commission settlement APIs")
+public class SettlementController {
+
+    private final SettlementService settlementService;
+    private final MessageService messageService;
+
+    /**
+     * Start a settlement run
+     */
+    @PostMapping
+    @Operation(summary = "Start settlement", description = "Settle all unsettled commissions created before the cutoff, in the background")
+    public ResponseEntity<ApiResponse<SettlementBatchResponse>> startSettlement(@RequestBody(required = false) SettlementRequest request) {
+        log.info("Starting settlement");
+
+        SettlementBatchResponse batch = settlementService.startSettlement(
+                request != null ? request : new SettlementRequest());
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(
+            ApiResponse.success(messageService.getMessage("success.settlement.started"), batch)
+        );
+    }
+
+    /**
+     * Get settlement batch
+     */
+    @GetMapping("/{batchId}")
+    @Operation(summary = "Get settlement batch", description = "Get the status and totals of a settlement batch")
+    public ResponseEntity<ApiResponse<SettlementBatchResponse>> getBatch(@PathVariable UUID batchId) {
+        SettlementBatchResponse batch = settlementService.getBatch(batchId);
+
+        return ResponseEntity.ok(
+            ApiResponse.success(messageService.getMessage("success.settlement.retrieved"), batch)
+        );
+    }
+}
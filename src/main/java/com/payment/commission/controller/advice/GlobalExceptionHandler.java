@@ -97,6 +97,48 @@ public class GlobalExceptionHandler {
             .body(error);
     }
 
+    /**
+     * Handle settlement batch not found exception
+     */
+    @ExceptionHandler(SettlementBatchNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleSettlementBatchNotFound(
+            SettlementBatchNotFoundException ex,
+            HttpServletRequest request) {
+
+        log.error("Settlement batch not found: {}", ex.getMessage());
+
+        ErrorResponse error = ErrorResponse.of(
+            ErrorCodes.RESOURCE_NOT_FOUND,
+            ex.getMessage(),
+            request.getRequestURI()
+        );
+
+        return ResponseEntity
+            .status(HttpStatus.NOT_FOUND)
+            .body(error);
+    }
+
+    /**
+     * Handle invalid date range exception
+     */
+    @ExceptionHandler(InvalidDateRangeException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidDateRange(
+            InvalidDateRangeException ex,
+            HttpServletRequest request) {
+
+        log.error("Invalid date range: {}", ex.getMessage());
+
+        ErrorResponse error = ErrorResponse.of(
+            ErrorCodes.INVALID_DATE_RANGE,
+            ex.getMessage(),
+            request.getRequestURI()
+        );
+
+        return ResponseEntity
+            .status(HttpStatus.BAD_REQUEST)
+            .body(error);
+    }
+
     /**
      * Handle method argument validation errors
      */
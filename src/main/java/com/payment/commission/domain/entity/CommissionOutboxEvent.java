@@ -0,0 +1,95 @@
+package com.payment.commission.domain.entity;
+
+import com.payment.commission.domain.enums.OutboxEventType;
+import com.payment.common.enums.Currency;
+import io.hypersistence.utils.hibernate.type.json.JsonType;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Type;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Commission Outbox Event Entity
+ * Commission event written in the same transaction as the commission change,
+ * published to Kafka by the outbox relay and deleted once published.
+ */
+@Entity
+@Table(name = "commission_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CommissionOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "outbox_id")
+    private Long outboxId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 30)
+    private OutboxEventType eventType;
+
+    @Column(name = "commission_id", nullable = false)
+    private UUID commissionId;
+
+    @Column(name = "transaction_id", nullable = false)
+    private UUID transactionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "currency", nullable = false, length = 3)
+    private Currency currency;
+
+    @Column(name = "amount", nullable = false)
+    private Long amount;
+
+    @Type(JsonType.class)
+    @Column(name = "calculation_basis", columnDefinition = "jsonb")
+    private String calculationBasis;
+
+    @Column(name = "settlement_date")
+    private LocalDateTime settlementDate;
+
+    @Column(name = "occurred_at", nullable = false, updatable = false)
+    private LocalDateTime occurredAt;
+
+    @Builder.Default
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    /**
+     * Create an outbox event capturing the current state of a commission
+     */
+    public static CommissionOutboxEvent of(OutboxEventType eventType, CommissionTransaction commission) {
+        LocalDateTime now = LocalDateTime.now();
+        return CommissionOutboxEvent.builder()
+                .eventType(eventType)
+                .commissionId(commission.getCommissionId())
+                .transactionId(commission.getTransactionId())
+                .currency(commission.getCurrency())
+                .amount(commission.getAmount())
+                .calculationBasis(commission.getCalculationBasis())
+                .settlementDate(commission.getSettlementDate())
+                .occurredAt(now)
+                .nextAttemptAt(now)
+                .build();
+    }
+
+    /**
+     * Record a failed publish attempt and schedule the next one
+     */
+    public void markFailed(String error, LocalDateTime nextAttemptAt) {
+        this.attempts = attempts + 1;
+        this.lastError = error;
+        this.nextAttemptAt = nextAttemptAt;
+    }
+}
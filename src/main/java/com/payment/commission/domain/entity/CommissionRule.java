@@ -1,5 +1,7 @@
 package com.payment.commission.domain.entity;
 
+import com.payment.commission.domain.id.UuidV7Id;
+import com.payment.commission.domain.model.FeeSchedule;
 import com.payment.common.enums.Currency;
 import com.payment.common.enums.KYCLevel;
 import com.payment.common.enums.TransferType;
@@ -9,6 +11,7 @@ import lombok.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Commission Rule Entity
@@ -24,7 +27,7 @@ import java.util.UUID;
 public class CommissionRule {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7Id
     @Column(name = "rule_id")
     private UUID ruleId;
 
@@ -92,6 +95,11 @@ public class CommissionRule {
     @Column(name = "created_by")
     private UUID createdBy;
 
+    // Fee kernel of the current fee fields; an initialized final field, so not part of the builder
+    @Transient
+    @Getter(AccessLevel.NONE)
+    private final transient AtomicReference<CompiledFeeSchedule> compiledFeeSchedule = new AtomicReference<>();
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -144,24 +152,33 @@ public class CommissionRule {
      * Calculate fee for the given amount using this rule
      */
     public Long calculateFee(Long amount) {
-        // Calculate percentage fee
-        BigDecimal percentageFee = BigDecimal.valueOf(amount)
-                .multiply(percentage)
-                .setScale(0, java.math.RoundingMode.DOWN);
-
-        // Add fixed amount
-        long totalFee = percentageFee.longValue() + (fixedAmount != null ? fixedAmount : 0);
+        return toFeeSchedule().calculate(amount);
+    }
 
-        // Apply minimum
-        if (minAmount != null && totalFee < minAmount) {
-            totalFee = minAmount;
+    /**
+     * Compile this rule's fee parameters into an allocation-free fee kernel.
+     * The kernel is cached and only rebuilt once a fee field has been replaced.
+     */
+    public FeeSchedule toFeeSchedule() {
+        CompiledFeeSchedule compiled = compiledFeeSchedule.get();
+        if (compiled == null || !compiled.isFor(this)) {
+            compiled = new CompiledFeeSchedule(percentage, fixedAmount, minAmount, maxAmount,
+                    FeeSchedule.of(percentage, fixedAmount, minAmount, maxAmount));
+            compiledFeeSchedule.set(compiled);
         }
+        return compiled.schedule();
+    }
 
-        // Apply maximum
-        if (maxAmount != null && totalFee > maxAmount) {
-            totalFee = maxAmount;
-        }
+    /**
+     * Fee kernel with the field values it was compiled from
+     */
+    private record CompiledFeeSchedule(BigDecimal percentage, Long fixedAmount, Long minAmount, Long maxAmount,
+                                       FeeSchedule schedule) {
 
-        return totalFee;
+        // Identity checks: setters, the builder and Hibernate all replace the field values
+        boolean isFor(CommissionRule rule) {
+            return percentage == rule.percentage && fixedAmount == rule.fixedAmount
+                    && minAmount == rule.minAmount && maxAmount == rule.maxAmount;
+        }
     }
 }
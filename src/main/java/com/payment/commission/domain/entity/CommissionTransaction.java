@@ -1,10 +1,12 @@
 package com.payment.commission.domain.entity;
 
 import com.payment.commission.domain.enums.CommissionStatus;
+import com.payment.commission.domain.id.UuidV7Id;
 import com.payment.common.enums.Currency;
 import io.hypersistence.utils.hibernate.type.json.JsonType;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.PartitionKey;
 import org.hibernate.annotations.Type;
 
 import java.time.LocalDateTime;
@@ -13,6 +15,8 @@ import java.util.UUID;
 /**
  * Commission Transaction Entity
  * Tracks platform commission revenue per transaction.
+ * The table is partitioned by month of created_at; transaction uniqueness is
+ * enforced through commission_transaction_keys.
  */
 @Entity
 @Table(name = "commission_transactions")
@@ -24,7 +28,7 @@ import java.util.UUID;
 public class CommissionTransaction {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7Id
     @Column(name = "commission_id")
     private UUID commissionId;
 
@@ -57,6 +61,11 @@ public class CommissionTransaction {
     @Column(name = "settlement_date")
     private LocalDateTime settlementDate;
 
+    @Column(name = "settlement_batch_id")
+    private UUID settlementBatchId;
+
+    // Added to update/delete predicates so they touch only the commission's partition
+    @PartitionKey
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -0,0 +1,56 @@
+package com.payment.commission.domain.entity;
+
+import com.payment.commission.domain.enums.SettlementBatchStatus;
+import com.payment.common.enums.Currency;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Settlement Batch Entity
+ * Header of a settlement run. Totals are maintained by the settlement engine
+ * as each chunk of commissions is settled.
+ */
+@Entity
+@Table(name = "settlement_batches")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SettlementBatch {
+
+    @Id
+    @Column(name = "batch_id")
+    private UUID batchId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "currency", length = 3)
+    private Currency currency;
+
+    @Column(name = "cutoff_at", nullable = false)
+    private LocalDateTime cutoffAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private SettlementBatchStatus status;
+
+    @Builder.Default
+    @Column(name = "commission_count", nullable = false)
+    private Long commissionCount = 0L;
+
+    @Builder.Default
+    @Column(name = "total_amount", nullable = false)
+    private Long totalAmount = 0L;
+
+    @Column(name = "error_message")
+    private String errorMessage;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,12 @@
+package com.payment.commission.domain.enums;
+
+/**
+ * Format of a commission transaction export.
+ *
+ * NDJSON: One JSON object per line
+ * CSV: RFC 4180 CSV with a header row
+ */
+public enum ExportFormat {
+    NDJSON,     // application/x-ndjson
+    CSV         // text/csv
+}
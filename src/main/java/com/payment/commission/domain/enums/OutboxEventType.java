@@ -0,0 +1,14 @@
+package com.payment.commission.domain.enums;
+
+/**
+ * Type of a commission event waiting in the outbox.
+ *
+ * COMMISSION_COLLECTED: Commission recorded for a completed transaction
+ * COMMISSION_REFUNDED: Commission refunded (transaction reversed)
+ * COMMISSION_SETTLED: Commission settled with the provider
+ */
+public enum OutboxEventType {
+    COMMISSION_COLLECTED,   // Commission recorded
+    COMMISSION_REFUNDED,    // Commission refunded
+    COMMISSION_SETTLED      // Commission settled
+}
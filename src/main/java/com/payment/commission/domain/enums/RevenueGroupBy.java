@@ -0,0 +1,16 @@
+package com.payment.commission.domain.enums;
+
+/**
+ * Grouping of a revenue report.
+ *
+ * DAY: One group per calendar day
+ * MONTH: One group per calendar month
+ * CURRENCY: One group per currency
+ * TRANSFER_TYPE: One group per transfer type
+ */
+public enum RevenueGroupBy {
+    DAY,            // yyyy-MM-dd
+    MONTH,          // yyyy-MM
+    CURRENCY,       // XOF, XAF
+    TRANSFER_TYPE   // SAME_WALLET, CROSS_WALLET, INTERNATIONAL
+}
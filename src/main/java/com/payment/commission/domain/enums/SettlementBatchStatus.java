@@ -0,0 +1,14 @@
+package com.payment.commission.domain.enums;
+
+/**
+ * Status of a settlement batch.
+ *
+ * RUNNING: Settlement in progress
+ * COMPLETED: All eligible commissions settled
+ * FAILED: Settlement stopped on an error; commissions settled so far stay settled
+ */
+public enum SettlementBatchStatus {
+    RUNNING,      // Settlement in progress
+    COMPLETED,    // Settlement completed
+    FAILED        // Settlement stopped on an error
+}
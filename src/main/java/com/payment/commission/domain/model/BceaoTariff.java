@@ -0,0 +1,134 @@
+package com.payment.commission.domain.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Objects;
+
+/**
+ * Precompiled BCEAO tariff: free up to a threshold, then a fixed fee plus a
+ * percentage of the amount rounded down, capped at a maximum.
+ *
+ * Compiled once into an integer piecewise function of the amount:
+ * <pre>
+ *   amount &lt;= freeThreshold        -&gt; 0
+ *   amount &gt;= saturationAmount     -&gt; maxFee (fixedFee if the percentage is 0)
+ *   otherwise                      -&gt; fixedFee + floor(amount * rate / divisor)
+ * </pre>
+ * where {@code saturationAmount} is the smallest amount whose uncapped fee reaches
+ * {@code maxFee} (180,000 XOF for the standard tariff). Results are identical to the
+ * {@code calculate_transfer_fee} SQL function (V4), which floors the percentage fee.
+ */
+public final class BceaoTariff {
+
+    /** Largest supported percentage scale, as for {@link FeeSchedule} */
+    private static final int MAX_SCALE = 9;
+
+    private final long freeThreshold;
+    private final long fixedFee;
+    private final long rate;
+    private final long divisor;
+    private final long saturationAmount;
+    private final long saturatedFee;
+
+    private BceaoTariff(long freeThreshold, long fixedFee, long rate, long divisor, long maxFee) {
+        this.freeThreshold = freeThreshold;
+        this.fixedFee = fixedFee;
+        this.rate = rate;
+        this.divisor = divisor;
+        if (fixedFee >= maxFee) {
+            // The fixed fee alone reaches the cap
+            this.saturationAmount = Long.MIN_VALUE;
+            this.saturatedFee = maxFee;
+        } else if (rate == 0) {
+            // The fee never grows past the fixed fee
+            this.saturationAmount = Long.MIN_VALUE;
+            this.saturatedFee = fixedFee;
+        } else {
+            // Smallest amount with fixedFee + floor(amount * rate / divisor) >= maxFee
+            this.saturationAmount = BigDecimal.valueOf(maxFee - fixedFee).multiply(BigDecimal.valueOf(divisor))
+                    .divide(BigDecimal.valueOf(rate), 0, RoundingMode.CEILING).longValueExact();
+            this.saturatedFee = maxFee;
+        }
+    }
+
+    /**
+     * Compile a tariff
+     * @param freeThreshold Amounts up to and including this are free
+     * @param fixedFee Fixed fee charged above the threshold
+     * @param percentage Percentage fee between 0 and 1 with at most 9 decimal places
+     * @param maxFee Fee cap
+     * @throws IllegalArgumentException if an amount is negative, the maximum fee too large,
+     *         or the percentage out of range or too precise
+     */
+    public static BceaoTariff of(long freeThreshold, long fixedFee, BigDecimal percentage, long maxFee) {
+        Objects.requireNonNull(percentage, "percentage");
+        if (freeThreshold < 0 || fixedFee < 0 || maxFee < 0) {
+            throw new IllegalArgumentException("Tariff amounts must not be negative: threshold " + freeThreshold
+                    + ", fixed " + fixedFee + ", max " + maxFee);
+        }
+        if (percentage.signum() < 0 || percentage.compareTo(BigDecimal.ONE) > 0) {
+            throw new IllegalArgumentException("Percentage must be between 0 and 1: " + percentage);
+        }
+
+        BigDecimal normalized = percentage.stripTrailingZeros();
+        int scale = Math.max(normalized.scale(), 0);
+        if (scale > MAX_SCALE) {
+            throw new IllegalArgumentException("Percentage has more than " + MAX_SCALE + " decimal places: " + percentage);
+        }
+
+        long rate = normalized.movePointRight(scale).longValueExact();
+        long divisor = BigDecimal.TEN.pow(scale).longValueExact();
+        try {
+            // Bounds amount * rate below the saturation amount, see calculate(long)
+            Math.addExact(Math.multiplyExact(Math.max(maxFee - fixedFee, 0L), divisor), rate);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Maximum fee too large: " + maxFee);
+        }
+        return new BceaoTariff(freeThreshold, fixedFee, rate, divisor, maxFee);
+    }
+
+    /**
+     * Calculate the fee for an amount
+     */
+    public long calculate(long amount) {
+        if (amount <= freeThreshold) {
+            return 0L;
+        }
+        if (amount >= saturationAmount) {
+            return saturatedFee;
+        }
+        // freeThreshold < amount < saturationAmount: positive, so truncation is FLOOR, and
+        // amount * rate < (maxFee - fixedFee) * divisor + rate, checked not to overflow
+        return fixedFee + amount * rate / divisor;
+    }
+
+    /**
+     * Calculate the fees for many amounts
+     * @return a new array with the fee of each amount at the same index
+     */
+    public long[] calculate(long[] amounts) {
+        long[] fees = new long[amounts.length];
+        calculate(amounts, fees);
+        return fees;
+    }
+
+    /**
+     * Calculate the fees for many amounts into a caller-supplied array
+     * @throws IllegalArgumentException if fees is shorter than amounts
+     */
+    public void calculate(long[] amounts, long[] fees) {
+        if (fees.length < amounts.length) {
+            throw new IllegalArgumentException("Fee array too short: " + fees.length + " < " + amounts.length);
+        }
+        for (int i = 0; i < amounts.length; i++) {
+            fees[i] = calculate(amounts[i]);
+        }
+    }
+
+    /**
+     * Smallest amount from which the fee is constant (Long.MIN_VALUE if it is constant above the threshold)
+     */
+    public long getSaturationAmount() {
+        return saturationAmount;
+    }
+}
@@ -0,0 +1,218 @@
+package com.payment.commission.domain.model;
+
+import com.payment.commission.domain.entity.CommissionRule;
+
+import java.math.BigDecimal;
+import java.nio.LongBuffer;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Precompiled fixed-point fee kernel for a commission rule.
+ *
+ * The percentage is converted once into an exact integer ratio
+ * {@code rate / 10^scale} (e.g. 0.0050 becomes 50 / 10,000), so {@link #calculate(long)}
+ * uses only {@code long} arithmetic and does not allocate. Results are identical to
+ * {@code BigDecimal.valueOf(amount).multiply(percentage).setScale(0, DOWN)} plus the
+ * fixed amount, clamped to the minimum and then the maximum.
+ *
+ * The bulk methods price whole arrays or buffers of amounts without boxing, either
+ * on the calling thread or split across a fork/join pool.
+ */
+public final class FeeSchedule {
+
+    /** Largest supported percentage scale; keeps {@code remainder * rate} below 10^18 */
+    private static final int MAX_SCALE = 9;
+
+    /** Amounts priced by one fork/join task before it stops splitting */
+    private static final int PARALLEL_GRAIN = 1 << 14;
+
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L
+    };
+
+    private final long rate;
+    private final long divisor;
+    private final long fixedAmount;
+    private final long minAmount;
+    private final long maxAmount;
+
+    private FeeSchedule(long rate, long divisor, long fixedAmount, long minAmount, long maxAmount) {
+        this.rate = rate;
+        this.divisor = divisor;
+        this.fixedAmount = fixedAmount;
+        this.minAmount = minAmount;
+        this.maxAmount = maxAmount;
+    }
+
+    /**
+     * Compile a fee schedule from rule parameters
+     * @param percentage Percentage fee between 0 and 1 with at most 9 decimal places
+     * @param fixedAmount Fixed fee, null meaning 0
+     * @param minAmount Minimum fee, null meaning no minimum
+     * @param maxAmount Maximum fee, null meaning no maximum
+     * @throws IllegalArgumentException if the percentage is out of range or too precise
+     */
+    public static FeeSchedule of(BigDecimal percentage, Long fixedAmount, Long minAmount, Long maxAmount) {
+        Objects.requireNonNull(percentage, "percentage");
+        if (percentage.signum() < 0 || percentage.compareTo(BigDecimal.ONE) > 0) {
+            throw new IllegalArgumentException("Percentage must be between 0 and 1: " + percentage);
+        }
+
+        BigDecimal normalized = percentage.stripTrailingZeros();
+        int scale = Math.max(normalized.scale(), 0);
+        if (scale > MAX_SCALE) {
+            throw new IllegalArgumentException("Percentage has more than " + MAX_SCALE + " decimal places: " + percentage);
+        }
+
+        return new FeeSchedule(
+                normalized.movePointRight(scale).longValueExact(),
+                POWERS_OF_TEN[scale],
+                fixedAmount != null ? fixedAmount : 0L,
+                minAmount != null ? minAmount : Long.MIN_VALUE,
+                maxAmount != null ? maxAmount : Long.MAX_VALUE
+        );
+    }
+
+    /**
+     * Compile the fee schedule of a commission rule
+     */
+    public static FeeSchedule of(CommissionRule rule) {
+        return of(rule.getPercentage(), rule.getFixedAmount(), rule.getMinAmount(), rule.getMaxAmount());
+    }
+
+    /**
+     * Calculate the fee for an amount
+     * @throws ArithmeticException if percentage fee plus fixed amount overflows a long
+     */
+    public long calculate(long amount) {
+        // amount * rate / divisor, truncated toward zero, split so that no product can overflow:
+        // |quotient * rate| <= |amount| because rate <= divisor, and |remainder * rate| < 10^18
+        long quotient = amount / divisor;
+        long remainder = amount % divisor;
+        long percentageFee = quotient * rate + remainder * rate / divisor;
+
+        long totalFee = Math.addExact(percentageFee, fixedAmount);
+
+        // Apply minimum, then maximum
+        if (totalFee < minAmount) {
+            totalFee = minAmount;
+        }
+        if (totalFee > maxAmount) {
+            totalFee = maxAmount;
+        }
+        return totalFee;
+    }
+
+    /**
+     * Calculate the fees of many amounts into a caller-supplied array
+     * @throws IllegalArgumentException if fees is shorter than amounts
+     * @throws ArithmeticException if any fee overflows a long; fees is then partially written
+     */
+    public void calculate(long[] amounts, long[] fees) {
+        checkCapacity(amounts.length, fees.length);
+        calculateRange(amounts, fees, 0, amounts.length);
+    }
+
+    /**
+     * Calculate the fees of amounts[from, to) into fees[from, to)
+     * @throws IndexOutOfBoundsException if the range is outside either array
+     * @throws ArithmeticException if any fee overflows a long; fees is then partially written
+     */
+    public void calculate(long[] amounts, int from, int to, long[] fees) {
+        Objects.checkFromToIndex(from, to, amounts.length);
+        Objects.checkFromToIndex(from, to, fees.length);
+        calculateRange(amounts, fees, from, to);
+    }
+
+    /**
+     * Calculate the fees of the remaining amounts of a (possibly direct) buffer,
+     * advancing the position of both buffers
+     * @throws IllegalArgumentException if fees has fewer remaining elements than amounts
+     * @throws ArithmeticException if any fee overflows a long; fees is then partially written
+     */
+    public void calculate(LongBuffer amounts, LongBuffer fees) {
+        int count = amounts.remaining();
+        checkCapacity(count, fees.remaining());
+        calculateRange(amounts, amounts.position(), fees, fees.position(), 0, count);
+        amounts.position(amounts.position() + count);
+        fees.position(fees.position() + count);
+    }
+
+    /**
+     * Calculate the fees of many amounts, splitting the work across a fork/join pool
+     * @see #calculate(long[], long[])
+     */
+    public void calculateParallel(long[] amounts, long[] fees, ForkJoinPool pool) {
+        checkCapacity(amounts.length, fees.length);
+        pool.invoke(new RangeTask((from, to) -> calculateRange(amounts, fees, from, to), 0, amounts.length));
+    }
+
+    /**
+     * Calculate the fees of the remaining amounts of a buffer, splitting the work across
+     * a fork/join pool and advancing the position of both buffers
+     * @see #calculate(LongBuffer, LongBuffer)
+     */
+    public void calculateParallel(LongBuffer amounts, LongBuffer fees, ForkJoinPool pool) {
+        int count = amounts.remaining();
+        checkCapacity(count, fees.remaining());
+        int amountsOffset = amounts.position();
+        int feesOffset = fees.position();
+        // Absolute get/put only, so the tasks can share the buffers
+        pool.invoke(new RangeTask((from, to) -> calculateRange(amounts, amountsOffset, fees, feesOffset, from, to),
+                0, count));
+        amounts.position(amountsOffset + count);
+        fees.position(feesOffset + count);
+    }
+
+    private void calculateRange(long[] amounts, long[] fees, int from, int to) {
+        for (int i = from; i < to; i++) {
+            fees[i] = calculate(amounts[i]);
+        }
+    }
+
+    private void calculateRange(LongBuffer amounts, int amountsOffset, LongBuffer fees, int feesOffset,
+                                int from, int to) {
+        for (int i = from; i < to; i++) {
+            fees.put(feesOffset + i, calculate(amounts.get(amountsOffset + i)));
+        }
+    }
+
+    private static void checkCapacity(int amounts, int fees) {
+        if (fees < amounts) {
+            throw new IllegalArgumentException("Fee array too short: " + fees + " < " + amounts);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RangeKernel {
+        void apply(int from, int to);
+    }
+
+    /**
+     * Halves its range until it is at most PARALLEL_GRAIN amounts long
+     */
+    private static final class RangeTask extends RecursiveAction {
+
+        private final RangeKernel kernel;
+        private final int from;
+        private final int to;
+
+        private RangeTask(RangeKernel kernel, int from, int to) {
+            this.kernel = kernel;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_GRAIN) {
+                kernel.apply(from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new RangeTask(kernel, from, middle), new RangeTask(kernel, middle, to));
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.payment.commission.dto.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * TRANSACTION_COMPLETED event no commission can be recorded for, with the reason
+ * Redelivering it cannot succeed, so it is sent to the dead letter topic.
+ */
+@Getter
+@AllArgsConstructor
+public class RejectedTransactionEvent {
+
+    private final TransactionCompletedEvent event;
+
+    private final RuntimeException error;
+}
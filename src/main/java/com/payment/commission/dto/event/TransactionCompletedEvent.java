@@ -0,0 +1,41 @@
+package com.payment.commission.dto.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.payment.common.enums.Currency;
+import com.payment.common.enums.TransferType;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * TRANSACTION_COMPLETED event published by the Transaction Service
+ * Only the fields needed to record the commission are bound.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class TransactionCompletedEvent {
+
+    private UUID transactionId;
+
+    private UUID ruleId;
+
+    private Long amount;
+
+    private Currency currency;
+
+    private TransferType transferType;
+
+    private LocalDateTime completedAt;
+
+    /**
+     * Check that the event carries everything needed to record a commission
+     */
+    public boolean isComplete() {
+        return transactionId != null && ruleId != null && amount != null && amount > 0 && currency != null;
+    }
+}
@@ -0,0 +1,36 @@
+package com.payment.commission.dto.request;
+
+import com.payment.common.enums.Currency;
+import com.payment.common.enums.KYCLevel;
+import com.payment.common.enums.TransferType;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.util.UUID;
+
+/**
+ * Request DTO for calculating a fee when the caller may not know the rule
+ * The highest priority rule matching the transaction is used when ruleId is omitted
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AutoCalculateFeeRequest {
+
+    private UUID ruleId;
+
+    @NotNull(message = "{validation.amount.required}")
+    @Min(value = 1, message = "{validation.amount.min}")
+    private Long amount;
+
+    @NotNull(message = "{validation.currency.required}")
+    private Currency currency;
+
+    @NotNull(message = "{validation.transfer.type.required}")
+    private TransferType transferType;
+
+    private KYCLevel kycLevel;
+}
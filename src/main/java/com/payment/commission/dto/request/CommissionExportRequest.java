@@ -0,0 +1,32 @@
+package com.payment.commission.dto.request;
+
+import com.payment.commission.domain.enums.CommissionStatus;
+import com.payment.commission.domain.enums.ExportFormat;
+import com.payment.common.enums.Currency;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Request DTO for commission transaction export
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CommissionExportRequest {
+
+    @NotNull(message = "{validation.start.date.required}")
+    private LocalDate startDate;
+
+    @NotNull(message = "{validation.end.date.required}")
+    private LocalDate endDate;
+
+    private Currency currency;
+
+    private CommissionStatus status;
+
+    private ExportFormat format; // NDJSON, CSV
+}
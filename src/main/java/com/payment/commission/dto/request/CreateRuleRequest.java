@@ -34,6 +34,7 @@ public class CreateRuleRequest {
     @NotNull(message = "{validation.percentage.required}")
     @DecimalMin(value = "0.0", message = "{validation.percentage.min}")
     @DecimalMax(value = "1.0", message = "{validation.percentage.max}")
+    @Digits(integer = 1, fraction = 4, message = "{validation.percentage.digits}")
     private BigDecimal percentage;
 
     @Min(value = 0, message = "{validation.fixed.amount.min}")
@@ -1,6 +1,8 @@
 package com.payment.commission.dto.request;
 
+import com.payment.commission.domain.enums.RevenueGroupBy;
 import com.payment.common.enums.Currency;
+import com.payment.common.enums.TransferType;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
 
@@ -18,11 +20,13 @@ public class RevenueReportRequest {
 
     private Currency currency;
 
+    private TransferType transferType;
+
     @NotNull(message = "{validation.start.date.required}")
     private LocalDate startDate;
 
     @NotNull(message = "{validation.end.date.required}")
     private LocalDate endDate;
 
-    private String groupBy; // CURRENCY, DAY, MONTH
+    private RevenueGroupBy groupBy; // DAY, MONTH, CURRENCY, TRANSFER_TYPE
 }
@@ -0,0 +1,28 @@
+package com.payment.commission.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Request DTO for simulating a candidate commission rule against historical commissions
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RuleSimulationRequest {
+
+    @Valid
+    @NotNull(message = "{validation.rule.required}")
+    private CreateRuleRequest rule;
+
+    @NotNull(message = "{validation.start.date.required}")
+    private LocalDate startDate;
+
+    @NotNull(message = "{validation.end.date.required}")
+    private LocalDate endDate;
+}
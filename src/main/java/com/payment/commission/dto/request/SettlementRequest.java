@@ -0,0 +1,21 @@
+package com.payment.commission.dto.request;
+
+import com.payment.common.enums.Currency;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Request DTO for starting a settlement run
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SettlementRequest {
+
+    private Currency currency; // All currencies when omitted
+
+    private LocalDateTime cutoff; // Settle commissions created before this instant; now when omitted
+}
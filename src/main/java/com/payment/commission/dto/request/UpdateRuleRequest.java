@@ -2,6 +2,7 @@ package com.payment.commission.dto.request;
 
 import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Size;
 import lombok.*;
@@ -21,6 +22,7 @@ public class UpdateRuleRequest {
 
     @DecimalMin(value = "0.0", message = "{validation.percentage.min}")
     @DecimalMax(value = "1.0", message = "{validation.percentage.max}")
+    @Digits(integer = 1, fraction = 4, message = "{validation.percentage.digits}")
     private BigDecimal percentage;
 
     @Min(value = 0, message = "{validation.fixed.amount.min}")
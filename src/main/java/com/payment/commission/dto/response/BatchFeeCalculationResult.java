@@ -0,0 +1,44 @@
+package com.payment.commission.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+/**
+ * Result of one item of a batch fee calculation.
+ * Either {@code result} or {@code errorCode}/{@code message} is set.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchFeeCalculationResult {
+
+    private int index;
+
+    private boolean success;
+
+    private FeeCalculationResult result;
+
+    private String errorCode;
+
+    private String message;
+
+    public static BatchFeeCalculationResult success(int index, FeeCalculationResult result) {
+        return BatchFeeCalculationResult.builder()
+                .index(index)
+                .success(true)
+                .result(result)
+                .build();
+    }
+
+    public static BatchFeeCalculationResult failure(int index, String errorCode, String message) {
+        return BatchFeeCalculationResult.builder()
+                .index(index)
+                .success(false)
+                .errorCode(errorCode)
+                .message(message)
+                .build();
+    }
+}
@@ -0,0 +1,29 @@
+package com.payment.commission.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.payment.common.enums.Currency;
+import com.payment.common.enums.TransferType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Calculation details of a fee: the shared rule details plus the amount-dependent fields,
+ * serialized as one flat object
+ */
+@Getter
+@AllArgsConstructor
+@JsonPropertyOrder({"finalAmount", "requestedAmount", "requestedCurrency", "requestedTransferType"})
+public class CalculationDetails {
+
+    @JsonUnwrapped
+    private final RuleCalculationDetails rule;
+
+    private final long finalAmount;
+
+    private final long requestedAmount;
+
+    private final Currency requestedCurrency;
+
+    private final TransferType requestedTransferType;
+}
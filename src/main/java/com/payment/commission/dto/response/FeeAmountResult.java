@@ -0,0 +1,14 @@
+package com.payment.commission.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Fee-only calculation result, returned for {@code detail=none}
+ */
+@Getter
+@AllArgsConstructor
+public class FeeAmountResult {
+
+    private final long commissionAmount;
+}
@@ -0,0 +1,34 @@
+package com.payment.commission.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.payment.common.enums.Currency;
+import com.payment.common.enums.TransferType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Fee calculation result, with the same JSON shape as the shared FeeCalculationResponse
+ * but typed calculation details instead of a map. Instances are cached and shared, so
+ * they are immutable.
+ */
+@Getter
+@AllArgsConstructor
+@Builder
+@JsonPropertyOrder({"amount", "currency", "commissionAmount", "ruleId", "transferType", "calculationDetails"})
+public class FeeCalculationResult {
+
+    private final long amount;
+
+    private final Currency currency;
+
+    private final long commissionAmount;
+
+    private final UUID ruleId;
+
+    private final TransferType transferType;
+
+    private final CalculationDetails calculationDetails;
+}
@@ -0,0 +1,38 @@
+package com.payment.commission.dto.response;
+
+import lombok.*;
+
+/**
+ * One group of a revenue report
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevenueReportGroup {
+
+    private String key;
+
+    private long collectedAmount;
+
+    private long collectedCount;
+
+    private long refundedAmount;
+
+    private long refundedCount;
+
+    /**
+     * Revenue net of refunds
+     */
+    public long getTotalRevenue() {
+        return collectedAmount - refundedAmount;
+    }
+
+    /**
+     * Commissions still standing after refunds
+     */
+    public long getTransactionCount() {
+        return collectedCount - refundedCount;
+    }
+}
@@ -0,0 +1,42 @@
+package com.payment.commission.dto.response;
+
+import com.payment.commission.domain.enums.RevenueGroupBy;
+import com.payment.common.enums.Currency;
+import com.payment.common.enums.TransferType;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Response DTO for revenue report
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevenueReportResponse {
+
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+
+    private RevenueGroupBy groupBy;
+
+    private Currency currency;
+
+    private TransferType transferType;
+
+    private long totalRevenue;
+
+    private long collectedAmount;
+
+    private long refundedAmount;
+
+    private long transactionCount;
+
+    private long averageCommission;
+
+    private List<RevenueReportGroup> groups;
+}
@@ -0,0 +1,39 @@
+package com.payment.commission.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.payment.common.enums.KYCLevel;
+import com.payment.common.enums.TransferType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Rule part of the calculation details, built once per compiled rule and shared by
+ * every fee calculated with it
+ */
+@Getter
+@AllArgsConstructor
+@JsonPropertyOrder({"ruleId", "transferType", "percentage", "fixedAmount", "minAmount", "maxAmount",
+        "priority", "kycLevel", "ruleDescription"})
+public class RuleCalculationDetails {
+
+    private final UUID ruleId;
+
+    private final TransferType transferType;
+
+    private final BigDecimal percentage;
+
+    private final Long fixedAmount;
+
+    private final Long minAmount;
+
+    private final Long maxAmount;
+
+    private final Integer priority;
+
+    private final KYCLevel kycLevel;
+
+    private final String ruleDescription;
+}
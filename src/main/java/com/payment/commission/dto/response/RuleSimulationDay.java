@@ -0,0 +1,44 @@
+package com.payment.commission.dto.response;
+
+import com.payment.common.enums.Currency;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Simulated fees of one day of historical commissions
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RuleSimulationDay {
+
+    private LocalDate date;
+
+    private Currency currency;
+
+    private long transactionCount;
+
+    private long requestedVolume;
+
+    /**
+     * Fees actually recorded at the time
+     */
+    private long recordedFees;
+
+    /**
+     * Fees under the current terms of the rules that priced the commissions
+     */
+    private long currentFees;
+
+    private long candidateFees;
+
+    /**
+     * Revenue change if the candidate rule priced these transactions
+     */
+    public long getFeeDelta() {
+        return candidateFees - currentFees;
+    }
+}
@@ -0,0 +1,41 @@
+package com.payment.commission.dto.response;
+
+import com.payment.common.enums.Currency;
+import com.payment.common.enums.TransferType;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Response DTO for a candidate rule simulation, with one group per day
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RuleSimulationResponse {
+
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+
+    private Currency currency;
+
+    private TransferType transferType;
+
+    private long transactionCount;
+
+    private long requestedVolume;
+
+    private long recordedFees;
+
+    private long currentFees;
+
+    private long candidateFees;
+
+    private long feeDelta;
+
+    private List<RuleSimulationDay> days;
+}
@@ -0,0 +1,52 @@
+package com.payment.commission.dto.response;
+
+import com.payment.commission.domain.entity.SettlementBatch;
+import com.payment.commission.domain.enums.SettlementBatchStatus;
+import com.payment.common.enums.Currency;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Response DTO for a settlement batch
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SettlementBatchResponse {
+
+    private UUID batchId;
+
+    private Currency currency;
+
+    private LocalDateTime cutoffAt;
+
+    private SettlementBatchStatus status;
+
+    private Long commissionCount;
+
+    private Long totalAmount;
+
+    private String errorMessage;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime completedAt;
+
+    public static SettlementBatchResponse from(SettlementBatch batch) {
+        return SettlementBatchResponse.builder()
+                .batchId(batch.getBatchId())
+                .currency(batch.getCurrency())
+                .cutoffAt(batch.getCutoffAt())
+                .status(batch.getStatus())
+                .commissionCount(batch.getCommissionCount())
+                .totalAmount(batch.getTotalAmount())
+                .errorMessage(batch.getErrorMessage())
+                .startedAt(batch.getStartedAt())
+                .completedAt(batch.getCompletedAt())
+                .build();
+    }
+}
@@ -0,0 +1,11 @@
+package com.payment.commission.exception;
+
+/**
+ * Exception thrown when a requested date range is invalid
+ */
+public class InvalidDateRangeException extends RuntimeException {
+
+    public InvalidDateRangeException(String message) {
+        super(message);
+    }
+}
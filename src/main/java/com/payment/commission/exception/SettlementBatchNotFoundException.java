@@ -0,0 +1,11 @@
+package com.payment.commission.exception;
+
+/**
+ * Exception thrown when a settlement batch is not found
+ */
+public class SettlementBatchNotFoundException extends RuntimeException {
+
+    public SettlementBatchNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,86 @@
+package com.payment.commission.listener;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.payment.commission.dto.event.RejectedTransactionEvent;
+import com.payment.commission.dto.event.TransactionCompletedEvent;
+import com.payment.commission.service.writer.CommissionWriter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Kafka listener for transaction events
+ *
+ * TRANSACTION_COMPLETED events are consumed in micro-batches and handed to the
+ * {@link CommissionWriter}, which coalesces the polls of all consumers into large
+ * writes. Offsets are committed only after the commissions have been committed.
+ * Malformed events, and events no commission can be recorded for, are published
+ * to the dead letter topic before the offsets are committed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "spring.kafka.enabled", havingValue = "true", matchIfMissing = true)
+public class TransactionEventListener {
+
+    private final CommissionWriter commissionWriter;
+    private final ObjectMapper objectMapper;
+    private final DeadLetterPublishingRecoverer transactionEventDeadLetterRecoverer;
+
+    /**
+     * Record commissions for a batch of completed transactions
+     */
+    @KafkaListener(
+            topics = "${commission.kafka.transaction-completed-topic}",
+            containerFactory = "transactionEventListenerContainerFactory"
+    )
+    public void onTransactionCompleted(List<ConsumerRecord<String, String>> records, Acknowledgment acknowledgment) {
+        List<TransactionCompletedEvent> events = new ArrayList<>(records.size());
+        Map<TransactionCompletedEvent, ConsumerRecord<String, String>> recordsByEvent = new IdentityHashMap<>();
+        Map<ConsumerRecord<String, String>, Exception> malformed = new LinkedHashMap<>();
+        for (ConsumerRecord<String, String> record : records) {
+            // Tombstones and a literal "null" payload carry no event
+            if (record.value() == null) {
+                log.error("Skipping empty TRANSACTION_COMPLETED event at {}-{}@{}",
+                        record.topic(), record.partition(), record.offset());
+                continue;
+            }
+            try {
+                TransactionCompletedEvent event = objectMapper.readValue(record.value(), TransactionCompletedEvent.class);
+                if (event == null) {
+                    log.error("Skipping empty TRANSACTION_COMPLETED event at {}-{}@{}",
+                            record.topic(), record.partition(), record.offset());
+                    continue;
+                }
+                events.add(event);
+                recordsByEvent.put(event, record);
+            } catch (JsonProcessingException e) {
+                log.error("Dead-lettering malformed TRANSACTION_COMPLETED event at {}-{}@{}: {}",
+                        record.topic(), record.partition(), record.offset(), e.getOriginalMessage());
+                malformed.put(record, e);
+            }
+        }
+
+        List<RejectedTransactionEvent> rejected = commissionWriter.write(events);
+        // Publishing waits for the broker, so a failure leaves the batch unacknowledged and it is redelivered
+        malformed.forEach(transactionEventDeadLetterRecoverer);
+        for (RejectedTransactionEvent rejection : rejected) {
+            transactionEventDeadLetterRecoverer.accept(recordsByEvent.get(rejection.getEvent()), rejection.getError());
+        }
+
+        // Reached only once the commissions are committed
+        acknowledgment.acknowledge();
+    }
+}
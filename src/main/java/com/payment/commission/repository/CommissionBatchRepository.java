@@ -0,0 +1,218 @@
+package com.payment.commission.repository;
+
+import com.payment.commission.domain.entity.CommissionTransaction;
+import com.payment.commission.domain.enums.OutboxEventType;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JDBC writes for commission recording
+ * Inserts are idempotent per transaction: each commission first claims its
+ * transaction in commission_transaction_keys (ON CONFLICT DO NOTHING) and is
+ * only inserted into the partitioned commission_transactions if the claim
+ * succeeded, in one statement. Bulk writes are staged in a session-local table,
+ * by a JDBC batch rewritten into multi-row inserts (reWriteBatchedInserts) or,
+ * for large bulks, by COPY, and inserted from there in one statement.
+ */
+@Repository
+public class CommissionBatchRepository {
+
+    private static final String COLUMNS =
+            "(commission_id, transaction_id, rule_id, currency, amount, calculation_basis, status, settled, created_at)";
+
+    private static final String INSERT_COMMISSION =
+            "WITH claimed AS (" +
+            "INSERT INTO commission_transaction_keys (commission_id, transaction_id, created_at) VALUES (?, ?, ?) " +
+            "ON CONFLICT (transaction_id) DO NOTHING " +
+            "RETURNING commission_id, transaction_id, created_at) " +
+            "INSERT INTO commission_transactions " + COLUMNS + " " +
+            "SELECT commission_id, transaction_id, ?, ?, ?, ?::jsonb, ?, ?, created_at FROM claimed";
+
+    // Deleted on commit, so a pooled connection reuses the table without leaking rows
+    private static final String CREATE_STAGING =
+            "CREATE TEMP TABLE IF NOT EXISTS commission_transactions_staging (" +
+            "commission_id UUID, transaction_id UUID, rule_id UUID, currency VARCHAR(3), amount BIGINT, " +
+            "calculation_basis JSONB, status VARCHAR(20), settled BOOLEAN, created_at TIMESTAMP WITH TIME ZONE" +
+            ") ON COMMIT DELETE ROWS";
+
+    private static final String INSERT_STAGING =
+            "INSERT INTO commission_transactions_staging " + COLUMNS + " " +
+            "VALUES (?, ?, ?, ?, ?, ?::jsonb, ?, ?, ?)";
+
+    private static final String COPY_STAGING =
+            "COPY commission_transactions_staging " + COLUMNS + " FROM STDIN WITH (FORMAT csv)";
+
+    // Duplicates within the staged rows lose the claim to the first one, like duplicates already recorded
+    private static final String INSERT_FROM_STAGING =
+            "WITH claimed AS (" +
+            "INSERT INTO commission_transaction_keys (commission_id, transaction_id, created_at) " +
+            "SELECT commission_id, transaction_id, created_at FROM commission_transactions_staging " +
+            "ON CONFLICT (transaction_id) DO NOTHING " +
+            "RETURNING commission_id) " +
+            "INSERT INTO commission_transactions " + COLUMNS + " " +
+            "SELECT s.commission_id, s.transaction_id, s.rule_id, s.currency, s.amount, s.calculation_basis, " +
+            "s.status, s.settled, s.created_at " +
+            "FROM commission_transactions_staging s JOIN claimed c ON c.commission_id = s.commission_id";
+
+    // Built from the commission rows, so commissions skipped as duplicates get no event.
+    // The created_at bounds prune the lookup to the partitions the commissions were written to.
+    private static final String INSERT_COLLECTED_EVENTS =
+            "INSERT INTO commission_outbox " +
+            "(event_type, commission_id, transaction_id, currency, amount, calculation_basis, occurred_at, next_attempt_at) " +
+            "SELECT '" + OutboxEventType.COMMISSION_COLLECTED.name() + "', commission_id, transaction_id, currency, amount, " +
+            "calculation_basis, ?, ? " +
+            "FROM commission_transactions WHERE commission_id = ANY(?) AND created_at >= ? AND created_at < ? " +
+            "ORDER BY created_at, commission_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int copyThreshold;
+
+    public CommissionBatchRepository(JdbcTemplate jdbcTemplate,
+                                     @Value("${commission.writer.copy-threshold:1000}") int copyThreshold) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.copyThreshold = copyThreshold;
+    }
+
+    /**
+     * Insert a commission unless one is already recorded for its transaction
+     * Commission ID and creation date must already be assigned.
+     * @return true if the commission was inserted, false if the transaction already had one
+     */
+    public boolean insertCommission(CommissionTransaction commission) {
+        return jdbcTemplate.update(INSERT_COMMISSION, ps -> setCommissionValues(ps, commission)) == 1;
+    }
+
+    /**
+     * Insert commissions in bulk, skipping transactions that already have one
+     * Commission IDs and creation dates must already be assigned. Bulks of at
+     * least copy-threshold rows are staged with COPY, smaller ones with a JDBC batch.
+     * @return the number of commissions inserted, without the skipped duplicates
+     */
+    public int insertCommissions(List<CommissionTransaction> commissions) {
+        if (commissions.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.execute(CREATE_STAGING);
+        if (commissions.size() >= copyThreshold) {
+            copyToStaging(commissions);
+        } else {
+            jdbcTemplate.batchUpdate(INSERT_STAGING, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    setStagingValues(ps, commissions.get(i));
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return commissions.size();
+                }
+            });
+        }
+        return jdbcTemplate.update(INSERT_FROM_STAGING);
+    }
+
+    /**
+     * Queue COMMISSION_COLLECTED outbox events for the given commissions in one statement
+     * Commissions not inserted (duplicates skipped by the insert) get no event.
+     */
+    public void insertCollectedEvents(List<CommissionTransaction> commissions, LocalDateTime occurredAt) {
+        if (commissions.isEmpty()) {
+            return;
+        }
+        Timestamp timestamp = Timestamp.valueOf(occurredAt);
+        CreatedAtBounds bounds = CreatedAtBounds.of(commissions);
+        jdbcTemplate.update(connection -> {
+            var ps = connection.prepareStatement(INSERT_COLLECTED_EVENTS);
+            ps.setTimestamp(1, timestamp);
+            ps.setTimestamp(2, timestamp);
+            ps.setArray(3, connection.createArrayOf("uuid",
+                    commissions.stream().map(CommissionTransaction::getCommissionId).toArray()));
+            ps.setTimestamp(4, bounds.from());
+            ps.setTimestamp(5, bounds.to());
+            return ps;
+        });
+    }
+
+    private void copyToStaging(List<CommissionTransaction> commissions) {
+        String csv = toCsv(commissions);
+        jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_STAGING, new StringReader(csv));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static String toCsv(List<CommissionTransaction> commissions) {
+        StringBuilder csv = new StringBuilder(commissions.size() * 384);
+        for (CommissionTransaction commission : commissions) {
+            csv.append(commission.getCommissionId()).append(',')
+                    .append(commission.getTransactionId()).append(',');
+            if (commission.getRuleId() != null) {
+                csv.append(commission.getRuleId());
+            }
+            csv.append(',').append(commission.getCurrency().name())
+                    .append(',').append(commission.getAmount())
+                    .append(',');
+            if (commission.getCalculationBasis() != null) {
+                appendQuoted(csv, commission.getCalculationBasis());
+            }
+            csv.append(',').append(commission.getStatus().name())
+                    .append(',').append(Boolean.TRUE.equals(commission.getSettled()))
+                    .append(',').append(commission.getCreatedAt())
+                    .append('\n');
+        }
+        return csv.toString();
+    }
+
+    // CSV quoting: the value is wrapped in quotes and embedded quotes are doubled
+    private static void appendQuoted(StringBuilder csv, String value) {
+        csv.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                csv.append('"');
+            }
+            csv.append(c);
+        }
+        csv.append('"');
+    }
+
+    private static void setCommissionValues(PreparedStatement ps, CommissionTransaction commission) throws SQLException {
+        ps.setObject(1, commission.getCommissionId());
+        ps.setObject(2, commission.getTransactionId());
+        ps.setTimestamp(3, Timestamp.valueOf(commission.getCreatedAt()));
+        ps.setObject(4, commission.getRuleId());
+        ps.setString(5, commission.getCurrency().name());
+        ps.setLong(6, commission.getAmount());
+        ps.setString(7, commission.getCalculationBasis());
+        ps.setString(8, commission.getStatus().name());
+        ps.setBoolean(9, Boolean.TRUE.equals(commission.getSettled()));
+    }
+
+    private static void setStagingValues(PreparedStatement ps, CommissionTransaction commission) throws SQLException {
+        ps.setObject(1, commission.getCommissionId());
+        ps.setObject(2, commission.getTransactionId());
+        ps.setObject(3, commission.getRuleId());
+        ps.setString(4, commission.getCurrency().name());
+        ps.setLong(5, commission.getAmount());
+        ps.setString(6, commission.getCalculationBasis());
+        ps.setString(7, commission.getStatus().name());
+        ps.setBoolean(8, Boolean.TRUE.equals(commission.getSettled()));
+        ps.setTimestamp(9, Timestamp.valueOf(commission.getCreatedAt()));
+    }
+}
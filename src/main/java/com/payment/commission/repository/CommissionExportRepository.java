@@ -0,0 +1,93 @@
+package com.payment.commission.repository;
+
+import com.payment.commission.domain.enums.CommissionStatus;
+import com.payment.common.enums.Currency;
+import com.payment.common.enums.TransferType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming reads of commission transactions for exports and rule simulations
+ * Rows are handed to the callback one at a time from a forward-only cursor; the
+ * driver only fetches fetch-size rows at a time when running inside a transaction
+ * (autocommit off), so callers must hold one. Nothing is attached to a persistence
+ * context. The created_at range prunes the scan to the months it covers.
+ */
+@Repository
+public class CommissionExportRepository {
+
+    private static final String COLUMNS =
+            "commission_id, transaction_id, rule_id, currency, amount, status, settled, " +
+            "settlement_date, settlement_batch_id, created_at, calculation_basis";
+
+    private final JdbcTemplate cursorTemplate;
+
+    public CommissionExportRepository(DataSource dataSource,
+                                      @Value("${commission.export.fetch-size:5000}") int fetchSize) {
+        this.cursorTemplate = new JdbcTemplate(dataSource);
+        this.cursorTemplate.setFetchSize(fetchSize);
+    }
+
+    /**
+     * Stream commissions created between the dates (inclusive), oldest first
+     */
+    public void streamCommissions(LocalDate startDate, LocalDate endDate, Currency currency,
+                                  CommissionStatus status, RowCallbackHandler handler) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(COLUMNS)
+                .append(" FROM commission_transactions WHERE created_at >= ? AND created_at < ? ");
+        List<Object> args = new ArrayList<>(4);
+        args.add(Timestamp.valueOf(startDate.atStartOfDay()));
+        args.add(Timestamp.valueOf(endDate.plusDays(1).atStartOfDay()));
+        if (currency != null) {
+            sql.append("AND currency = ? ");
+            args.add(currency.name());
+        }
+        if (status != null) {
+            sql.append("AND status = ? ");
+            args.add(status.name());
+        }
+        sql.append("ORDER BY created_at, commission_id");
+
+        cursorTemplate.query(sql.toString(), handler, args.toArray());
+    }
+
+    /**
+     * Stream the rule id, recorded fee and requested amount (from calculation_basis) of
+     * the commissions created on a day that a rule for the currency, transfer type and
+     * transaction limits would price. Refunded commissions and commissions whose basis
+     * lacks the requested amount or transfer type are skipped.
+     */
+    public void streamRequestedAmounts(LocalDate day, Currency currency, TransferType transferType,
+                                       Long minTransaction, Long maxTransaction, RowCallbackHandler handler) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT rule_id, amount, requested_amount FROM (" +
+                "SELECT rule_id, amount, (calculation_basis->>'requestedAmount')::BIGINT AS requested_amount " +
+                "FROM commission_transactions " +
+                "WHERE created_at >= ? AND created_at < ? AND currency = ? AND status <> 'REFUNDED' " +
+                "AND calculation_basis->>'requestedTransferType' = ?" +
+                ") c WHERE requested_amount IS NOT NULL ");
+        List<Object> args = new ArrayList<>(6);
+        args.add(Timestamp.valueOf(day.atStartOfDay()));
+        args.add(Timestamp.valueOf(day.plusDays(1).atStartOfDay()));
+        args.add(currency.name());
+        args.add(transferType.name());
+        if (minTransaction != null) {
+            sql.append("AND requested_amount >= ? ");
+            args.add(minTransaction);
+        }
+        if (maxTransaction != null) {
+            sql.append("AND requested_amount <= ? ");
+            args.add(maxTransaction);
+        }
+
+        cursorTemplate.query(sql.toString(), handler, args.toArray());
+    }
+}
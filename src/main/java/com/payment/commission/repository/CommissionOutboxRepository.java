@@ -0,0 +1,83 @@
+package com.payment.commission.repository;
+
+import com.payment.commission.domain.entity.CommissionOutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for the commission event outbox
+ */
+@Repository
+public interface CommissionOutboxRepository extends JpaRepository<CommissionOutboxEvent, Long> {
+
+    /**
+     * Lock the next batch of events that are due for publication.
+     * Only the oldest pending event of each transaction is returned, so events of one
+     * transaction are published in order even across retries and relay instances.
+     * Rows locked by another relay instance are skipped.
+     */
+    @Query(value = "SELECT o.* FROM commission_outbox o " +
+                   "WHERE o.next_attempt_at <= :now " +
+                   "AND NOT EXISTS (SELECT 1 FROM commission_outbox p " +
+                   "                WHERE p.transaction_id = o.transaction_id AND p.outbox_id < o.outbox_id) " +
+                   "ORDER BY o.outbox_id " +
+                   "LIMIT :limit " +
+                   "FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<CommissionOutboxEvent> lockNextBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Lease locked events to the calling relay until the given time, so no other relay picks them
+     * once the lock is released
+     */
+    @Modifying
+    @Query("UPDATE CommissionOutboxEvent o SET o.nextAttemptAt = :leaseUntil WHERE o.outboxId IN :outboxIds")
+    int lease(@Param("outboxIds") Collection<Long> outboxIds, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    /**
+     * Record a failed publish attempt of an event and schedule the next one
+     */
+    @Modifying
+    @Query("UPDATE CommissionOutboxEvent o SET o.attempts = o.attempts + 1, o.lastError = :error, " +
+           "o.nextAttemptAt = :nextAttemptAt WHERE o.outboxId = :outboxId")
+    int recordFailure(@Param("outboxId") Long outboxId, @Param("error") String error,
+                      @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+
+    /**
+     * Move every pending event of the given transactions to the dead letter table
+     * Later events of a transaction go with the failed one, so they are never published ahead of it.
+     * @return the number of events moved
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "WITH moved AS ( " +
+                   "    DELETE FROM commission_outbox WHERE transaction_id IN (:transactionIds) RETURNING * " +
+                   ") " +
+                   "INSERT INTO commission_outbox_dead_letter " +
+                   "(outbox_id, event_type, commission_id, transaction_id, currency, amount, calculation_basis, " +
+                   " settlement_date, occurred_at, attempts, last_error) " +
+                   "SELECT outbox_id, event_type, commission_id, transaction_id, currency, amount, calculation_basis, " +
+                   "       settlement_date, occurred_at, attempts, last_error " +
+                   "FROM moved",
+           nativeQuery = true)
+    int moveToDeadLetter(@Param("transactionIds") Collection<UUID> transactionIds);
+
+    /**
+     * Count events in the dead letter table
+     */
+    @Query(value = "SELECT COUNT(*) FROM commission_outbox_dead_letter", nativeQuery = true)
+    long countDeadLettered();
+
+    /**
+     * Find when the oldest pending event occurred
+     */
+    @Query("SELECT MIN(o.occurredAt) FROM CommissionOutboxEvent o")
+    LocalDateTime findOldestOccurredAt();
+}
@@ -0,0 +1,93 @@
+package com.payment.commission.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * DDL for the monthly partitions of commission_transactions
+ * Partitions are named commission_transactions_pYYYY_MM and cover one calendar
+ * month in UTC; archived partitions move to the commission_archive schema.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CommissionPartitionRepository {
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("commission_transactions_p(\\d{4})_(\\d{2})");
+
+    private static final String FIND_PARTITIONS =
+            "SELECT child.relname FROM pg_inherits i " +
+            "JOIN pg_class parent ON parent.oid = i.inhparent " +
+            "JOIN pg_class child ON child.oid = i.inhrelid " +
+            "WHERE parent.oid = 'commission_transactions'::regclass";
+
+    // Serializes maintenance between instances; released when the transaction ends
+    private static final long MAINTENANCE_LOCK_KEY = 0x636f6d6d5f706172L;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Take the cluster-wide maintenance lock for the current transaction
+     * @return false if another instance holds it
+     */
+    public boolean tryLockMaintenance() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, MAINTENANCE_LOCK_KEY));
+    }
+
+    /**
+     * Monthly partitions currently attached, by month
+     */
+    public Map<YearMonth, String> findPartitions() {
+        Map<YearMonth, String> partitions = new TreeMap<>();
+        for (String name : jdbcTemplate.queryForList(FIND_PARTITIONS, String.class)) {
+            Matcher matcher = PARTITION_NAME.matcher(name);
+            if (matcher.matches()) {
+                partitions.put(YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))), name);
+            }
+        }
+        return partitions;
+    }
+
+    /**
+     * Create the partition for a month unless it exists
+     * @return the partition name
+     */
+    public String createPartition(YearMonth month) {
+        return jdbcTemplate.queryForObject("SELECT create_commission_transactions_partition(?)",
+                String.class, Date.valueOf(month.atDay(1)));
+    }
+
+    /**
+     * Whether a partition still holds completed commissions awaiting settlement
+     */
+    public boolean hasUnsettledCommissions(String partition) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM " + quote(partition) + " WHERE settled = FALSE AND status = 'COMPLETED')",
+                Boolean.class));
+    }
+
+    /**
+     * Detach a month's partition and move it to the archive schema
+     * The transaction keys of its commissions are kept, so a late redelivery of one of
+     * its transactions is still recognized as already recorded.
+     * Revenue reports are unaffected: they read the daily rollup, not the commissions.
+     */
+    public void archivePartition(String partition) {
+        jdbcTemplate.execute("ALTER TABLE commission_transactions DETACH PARTITION " + quote(partition));
+        jdbcTemplate.execute("ALTER TABLE " + quote(partition) + " SET SCHEMA commission_archive");
+    }
+
+    // Only names matching PARTITION_NAME reach here, but quote anyway
+    private static String quote(String identifier) {
+        return '"' + identifier.replace("\"", "\"\"") + '"';
+    }
+}
@@ -15,14 +15,22 @@ import java.util.UUID;
 
 /**
  * Repository for Commission Transactions
+ * Date-ranged queries filter on created_at, the partition key, so they only scan
+ * the monthly partitions the range covers.
  */
 @Repository
 public interface CommissionTransactionRepository extends JpaRepository<CommissionTransaction, UUID> {
 
     /**
      * Find commission by transaction ID
+     * Resolved through commission_transaction_keys, so only the commission's partition is read.
      */
-    Optional<CommissionTransaction> findByTransactionId(UUID transactionId);
+    @Query(value = "SELECT ct.* FROM commission_transaction_keys k " +
+                   "JOIN commission_transactions ct " +
+                   "ON ct.commission_id = k.commission_id AND ct.created_at = k.created_at " +
+                   "WHERE k.transaction_id = :transactionId",
+           nativeQuery = true)
+    Optional<CommissionTransaction> findByTransactionId(@Param("transactionId") UUID transactionId);
 
     /**
      * Find commissions by currency
@@ -34,11 +42,6 @@ public interface CommissionTransactionRepository extends JpaRepository<Commissio
      */
     List<CommissionTransaction> findByStatus(CommissionStatus status);
 
-    /**
-     * Find unsettled commissions
-     */
-    List<CommissionTransaction> findBySettledFalse();
-
     /**
      * Calculate total revenue within a date range
      */
@@ -0,0 +1,36 @@
+package com.payment.commission.repository;
+
+import com.payment.commission.domain.entity.CommissionTransaction;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+
+/**
+ * Half-open created_at range covering a set of commissions
+ * Added to lookups by commission ID so the planner prunes commission_transactions
+ * to the partitions those commissions live in. Widened to whole seconds because
+ * the database keeps microseconds and LocalDateTime may carry nanoseconds.
+ */
+record CreatedAtBounds(Timestamp from, Timestamp to) {
+
+    static CreatedAtBounds of(Collection<CommissionTransaction> commissions) {
+        LocalDateTime min = null;
+        LocalDateTime max = null;
+        for (CommissionTransaction commission : commissions) {
+            LocalDateTime createdAt = commission.getCreatedAt();
+            if (min == null || createdAt.isBefore(min)) {
+                min = createdAt;
+            }
+            if (max == null || createdAt.isAfter(max)) {
+                max = createdAt;
+            }
+        }
+        if (min == null) {
+            throw new IllegalArgumentException("No commissions to bound");
+        }
+        return new CreatedAtBounds(Timestamp.valueOf(min.truncatedTo(ChronoUnit.SECONDS)),
+                Timestamp.valueOf(max.truncatedTo(ChronoUnit.SECONDS).plusSeconds(1)));
+    }
+}
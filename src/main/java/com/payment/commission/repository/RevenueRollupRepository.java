@@ -0,0 +1,127 @@
+package com.payment.commission.repository;
+
+import com.payment.commission.domain.entity.CommissionTransaction;
+import com.payment.commission.domain.enums.RevenueGroupBy;
+import com.payment.commission.dto.response.RevenueReportGroup;
+import com.payment.common.enums.Currency;
+import com.payment.common.enums.TransferType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Repository for the daily revenue rollup (commission_revenue_daily)
+ *
+ * Rollup rows are derived from the commission rows themselves, so only commissions
+ * actually written by the current transaction are counted. Buckets are upserted in
+ * key order to keep lock ordering consistent between concurrent writers. Days are
+ * UTC dates, like the monthly partitions, whatever the session time zone.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RevenueRollupRepository {
+
+    private static final String BUCKET_SELECT =
+            "SELECT (ct.created_at AT TIME ZONE 'UTC')::date, ct.currency, COALESCE(r.transfer_type, 'UNKNOWN'), ";
+
+    private static final String BUCKET_FROM =
+            "FROM commission_transactions ct " +
+            "LEFT JOIN commission_rules r ON r.rule_id = ct.rule_id ";
+
+    private static final String ADD_COLLECTED =
+            "INSERT INTO commission_revenue_daily AS d " +
+            "(revenue_date, currency, transfer_type, collected_amount, collected_count) " +
+            BUCKET_SELECT + "SUM(ct.amount), COUNT(*) " +
+            BUCKET_FROM +
+            "WHERE ct.commission_id = ANY(?) AND ct.created_at >= ? AND ct.created_at < ? " +
+            "GROUP BY 1, 2, 3 ORDER BY 1, 2, 3 " +
+            "ON CONFLICT (revenue_date, currency, transfer_type) DO UPDATE SET " +
+            "collected_amount = d.collected_amount + EXCLUDED.collected_amount, " +
+            "collected_count = d.collected_count + EXCLUDED.collected_count, " +
+            "updated_at = CURRENT_TIMESTAMP";
+
+    private static final String ADD_REFUNDED =
+            "INSERT INTO commission_revenue_daily AS d " +
+            "(revenue_date, currency, transfer_type, refunded_amount, refunded_count) " +
+            BUCKET_SELECT + "ct.amount, 1 " +
+            BUCKET_FROM +
+            "WHERE ct.commission_id = ? AND ct.created_at >= ? AND ct.created_at < ? " +
+            "ON CONFLICT (revenue_date, currency, transfer_type) DO UPDATE SET " +
+            "refunded_amount = d.refunded_amount + EXCLUDED.refunded_amount, " +
+            "refunded_count = d.refunded_count + EXCLUDED.refunded_count, " +
+            "updated_at = CURRENT_TIMESTAMP";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Add commissions to their daily buckets
+     */
+    public void addCollected(List<CommissionTransaction> commissions) {
+        if (commissions.isEmpty()) {
+            return;
+        }
+        CreatedAtBounds bounds = CreatedAtBounds.of(commissions);
+        jdbcTemplate.update(connection -> {
+            var ps = connection.prepareStatement(ADD_COLLECTED);
+            ps.setArray(1, connection.createArrayOf("uuid",
+                    commissions.stream().map(CommissionTransaction::getCommissionId).toArray()));
+            ps.setTimestamp(2, bounds.from());
+            ps.setTimestamp(3, bounds.to());
+            return ps;
+        });
+    }
+
+    /**
+     * Add a refunded commission to the bucket it was collected in
+     */
+    public void addRefunded(CommissionTransaction commission) {
+        CreatedAtBounds bounds = CreatedAtBounds.of(List.of(commission));
+        jdbcTemplate.update(ADD_REFUNDED, commission.getCommissionId(), bounds.from(), bounds.to());
+    }
+
+    /**
+     * Aggregate rollup rows within a date range (inclusive)
+     */
+    public List<RevenueReportGroup> aggregate(LocalDate startDate, LocalDate endDate, RevenueGroupBy groupBy,
+                                              Currency currency, TransferType transferType) {
+        StringBuilder sql = new StringBuilder("SELECT ")
+                .append(groupKey(groupBy)).append(" AS group_key, ")
+                .append("SUM(collected_amount), SUM(collected_count), SUM(refunded_amount), SUM(refunded_count) ")
+                .append("FROM commission_revenue_daily ")
+                .append("WHERE revenue_date BETWEEN ? AND ? ");
+        List<Object> args = new ArrayList<>(4);
+        args.add(Date.valueOf(startDate));
+        args.add(Date.valueOf(endDate));
+        if (currency != null) {
+            sql.append("AND currency = ? ");
+            args.add(currency.name());
+        }
+        if (transferType != null) {
+            sql.append("AND transfer_type = ? ");
+            args.add(transferType.name());
+        }
+        sql.append("GROUP BY group_key ORDER BY group_key");
+
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> RevenueReportGroup.builder()
+                .key(rs.getString(1))
+                .collectedAmount(rs.getLong(2))
+                .collectedCount(rs.getLong(3))
+                .refundedAmount(rs.getLong(4))
+                .refundedCount(rs.getLong(5))
+                .build(), args.toArray());
+    }
+
+    private static String groupKey(RevenueGroupBy groupBy) {
+        return switch (groupBy) {
+            case DAY -> "to_char(revenue_date, 'YYYY-MM-DD')";
+            case MONTH -> "to_char(revenue_date, 'YYYY-MM')";
+            case CURRENCY -> "currency";
+            case TRANSFER_TYPE -> "transfer_type";
+        };
+    }
+}
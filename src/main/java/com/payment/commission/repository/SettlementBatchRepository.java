@@ -0,0 +1,14 @@
+package com.payment.commission.repository;
+
+import com.payment.commission.domain.entity.SettlementBatch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+/**
+ * Repository for Settlement Batches
+ */
+@Repository
+public interface SettlementBatchRepository extends JpaRepository<SettlementBatch, UUID> {
+}
@@ -0,0 +1,132 @@
+package com.payment.commission.repository;
+
+import com.payment.commission.domain.enums.SettlementBatchStatus;
+import com.payment.common.enums.Currency;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Set-based settlement of commissions
+ *
+ * Unsettled commissions are walked in keyset order on (created_at, commission_id)
+ * and settled one chunk per statement: the chunk is locked, marked settled, linked
+ * to its batch and queued as COMMISSION_SETTLED outbox events, and only the chunk
+ * totals and keyset cursor come back to the application. The cutoff on created_at
+ * prunes the scan to the monthly partitions before it.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SettlementRepository {
+
+    private static final String SETTLE_CHUNK_HEAD =
+            "WITH chunk AS ( " +
+            "    SELECT commission_id, created_at FROM commission_transactions " +
+            "    WHERE settled = FALSE AND status = 'COMPLETED' AND created_at < ? ";
+
+    private static final String SETTLE_CHUNK_TAIL =
+            "    ORDER BY created_at, commission_id " +
+            "    LIMIT ? " +
+            "    FOR UPDATE SKIP LOCKED " +
+            "), settled_rows AS ( " +
+            "    UPDATE commission_transactions ct " +
+            "    SET settled = TRUE, settlement_date = ?, settlement_batch_id = ? " +
+            "    FROM chunk WHERE ct.commission_id = chunk.commission_id AND ct.created_at = chunk.created_at " +
+            "    RETURNING ct.commission_id, ct.transaction_id, ct.currency, ct.amount, ct.created_at " +
+            "), settled_events AS ( " +
+            "    INSERT INTO commission_outbox " +
+            "    (event_type, commission_id, transaction_id, currency, amount, settlement_date, occurred_at, next_attempt_at) " +
+            "    SELECT 'COMMISSION_SETTLED', commission_id, transaction_id, currency, amount, ?, ?, ? " +
+            "    FROM settled_rows ORDER BY created_at, commission_id " +
+            ") " +
+            "SELECT COUNT(*), COALESCE(SUM(amount), 0), " +
+            "       (SELECT created_at FROM settled_rows ORDER BY created_at DESC, commission_id DESC LIMIT 1), " +
+            "       (SELECT commission_id FROM settled_rows ORDER BY created_at DESC, commission_id DESC LIMIT 1) " +
+            "FROM settled_rows";
+
+    private static final String ADD_BATCH_TOTALS =
+            "UPDATE settlement_batches " +
+            "SET commission_count = commission_count + ?, total_amount = total_amount + ? " +
+            "WHERE batch_id = ?";
+
+    private static final String COMPLETE_BATCH =
+            "UPDATE settlement_batches " +
+            "SET status = ?, error_message = ?, completed_at = ? " +
+            "WHERE batch_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Settle the next chunk of unsettled commissions after the keyset cursor
+     * @param afterCreatedAt cursor created_at, or null to start from the oldest commission
+     * @param afterCommissionId cursor commission_id, or null to start from the oldest commission
+     */
+    public SettledChunk settleChunk(UUID batchId, Currency currency, LocalDateTime cutoffAt,
+                                    LocalDateTime afterCreatedAt, UUID afterCommissionId,
+                                    int chunkSize, LocalDateTime settlementDate) {
+        StringBuilder sql = new StringBuilder(SETTLE_CHUNK_HEAD);
+        List<Object> args = new ArrayList<>(12);
+        args.add(Timestamp.valueOf(cutoffAt));
+        if (currency != null) {
+            sql.append("    AND currency = ? ");
+            args.add(currency.name());
+        }
+        if (afterCreatedAt != null) {
+            sql.append("    AND (created_at, commission_id) > (?, ?) ");
+            args.add(Timestamp.valueOf(afterCreatedAt));
+            args.add(afterCommissionId);
+        }
+        sql.append(SETTLE_CHUNK_TAIL);
+
+        Timestamp settledAt = Timestamp.valueOf(settlementDate);
+        args.add(chunkSize);
+        args.add(settledAt);
+        args.add(batchId);
+        args.add(settledAt);
+        args.add(settledAt);
+        args.add(settledAt);
+
+        return jdbcTemplate.queryForObject(sql.toString(), (rs, rowNum) -> {
+            Timestamp lastCreatedAt = rs.getTimestamp(3);
+            return new SettledChunk(
+                    rs.getLong(1),
+                    rs.getLong(2),
+                    lastCreatedAt != null ? lastCreatedAt.toLocalDateTime() : null,
+                    rs.getObject(4, UUID.class));
+        }, args.toArray());
+    }
+
+    /**
+     * Add chunk totals to a settlement batch header
+     */
+    public void addBatchTotals(UUID batchId, long commissionCount, long totalAmount) {
+        jdbcTemplate.update(ADD_BATCH_TOTALS, commissionCount, totalAmount, batchId);
+    }
+
+    /**
+     * Close a settlement batch
+     */
+    public void completeBatch(UUID batchId, SettlementBatchStatus status, String errorMessage, LocalDateTime completedAt) {
+        jdbcTemplate.update(COMPLETE_BATCH, status.name(), errorMessage, Timestamp.valueOf(completedAt), batchId);
+    }
+
+    /**
+     * Totals and keyset cursor of one settled chunk
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class SettledChunk {
+        private final long commissionCount;
+        private final long totalAmount;
+        private final LocalDateTime lastCreatedAt;
+        private final UUID lastCommissionId;
+    }
+}
@@ -1,85 +1,133 @@
 package com.payment.commission.service;
 
+import com.payment.commission.domain.entity.CommissionOutboxEvent;
 import com.payment.commission.domain.entity.CommissionTransaction;
+import com.payment.commission.domain.enums.OutboxEventType;
+import com.payment.commission.repository.CommissionBatchRepository;
+import com.payment.commission.service.metrics.CommissionMetrics;
+import com.payment.commission.repository.CommissionOutboxRepository;
 import com.payment.kafka.event.CommissionEvent;
 import com.payment.kafka.config.KafkaTopics;
-import com.payment.kafka.publisher.EventPublisher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service for publishing commission-related events to Kafka
+ *
+ * Events are written to the outbox in the caller's transaction and sent to Kafka
+ * by the outbox relay once committed, so callers never wait on the broker.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class CommissionEventPublisher {
 
-    private final EventPublisher eventPublisher;
+    private final KafkaTemplate<String, Object> commissionEventKafkaTemplate;
+    private final CommissionOutboxRepository commissionOutboxRepository;
+    private final CommissionBatchRepository commissionBatchRepository;
+    private final CommissionMetrics commissionMetrics;
 
 
     /**
      * Publish commission collected event
      */
+    @Transactional(propagation = Propagation.MANDATORY)
     public void publishCommissionCollected(CommissionTransaction commission) {
-        try {
-            CommissionEvent event = CommissionEvent.commissionCollected(
-                    commission.getCommissionId().toString(),
-                    commission.getTransactionId().toString(),
-                    commission.getAmount(),
-                    commission.getCurrency().name(),
-                    commission.getCalculationBasis(),
-                    LocalDateTime.now()
-            );
+        enqueue(OutboxEventType.COMMISSION_COLLECTED, commission);
+    }
 
-            eventPublisher.publish(KafkaTopics.COMMISSION_COLLECTED, commission.getCommissionId().toString(), event);
-            log.info("Published COMMISSION_COLLECTED event for commission: {}", commission.getCommissionId());
-        } catch (Exception e) {
-            log.error("Error publishing COMMISSION_COLLECTED event", e);
-        }
+    /**
+     * Publish commission collected events for a batch of commissions
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishCommissionsCollected(List<CommissionTransaction> commissions) {
+        commissionBatchRepository.insertCollectedEvents(commissions, LocalDateTime.now());
+        log.debug("Queued {} COMMISSION_COLLECTED events", commissions.size());
     }
 
     /**
      * Publish commission refunded event
      */
+    @Transactional(propagation = Propagation.MANDATORY)
     public void publishCommissionRefunded(CommissionTransaction commission) {
-        try {
-            CommissionEvent event = CommissionEvent.commissionRefunded(
-                    commission.getCommissionId().toString(),
-                    commission.getTransactionId().toString(),
-                    commission.getAmount(),
-                    commission.getCurrency().name(),
-                    LocalDateTime.now()
-            );
-
-            eventPublisher.publish(KafkaTopics.COMMISSION_REFUNDED, commission.getCommissionId().toString(), event);
-            log.info("Published COMMISSION_REFUNDED event for commission: {}", commission.getCommissionId());
-        } catch (Exception e) {
-            log.error("Error publishing COMMISSION_REFUNDED event", e);
-        }
+        enqueue(OutboxEventType.COMMISSION_REFUNDED, commission);
     }
 
     /**
      * Publish commission settled event
      */
+    @Transactional(propagation = Propagation.MANDATORY)
     public void publishCommissionSettled(CommissionTransaction commission) {
-        try {
-            CommissionEvent event = CommissionEvent.commissionSettled(
-                    commission.getCommissionId().toString(),
-                    commission.getTransactionId().toString(),
-                    commission.getAmount(),
-                    commission.getCurrency().name(),
-                    commission.getSettlementDate(),
-                    LocalDateTime.now()
+        enqueue(OutboxEventType.COMMISSION_SETTLED, commission);
+    }
+
+    /**
+     * Send an outbox event to its Kafka topic without waiting for the broker
+     * The returned future completes when the broker acknowledged the event, or
+     * exceptionally if the send failed, so the relay can retry the event.
+     */
+    public CompletableFuture<SendResult<String, Object>> sendAsync(CommissionOutboxEvent outboxEvent) {
+        String commissionId = outboxEvent.getCommissionId().toString();
+        String transactionId = outboxEvent.getTransactionId().toString();
+
+        String topic = switch (outboxEvent.getEventType()) {
+            case COMMISSION_COLLECTED -> KafkaTopics.COMMISSION_COLLECTED;
+            case COMMISSION_REFUNDED -> KafkaTopics.COMMISSION_REFUNDED;
+            case COMMISSION_SETTLED -> KafkaTopics.COMMISSION_SETTLED;
+        };
+        CommissionEvent event = switch (outboxEvent.getEventType()) {
+            case COMMISSION_COLLECTED -> CommissionEvent.commissionCollected(
+                    commissionId,
+                    transactionId,
+                    outboxEvent.getAmount(),
+                    outboxEvent.getCurrency().name(),
+                    outboxEvent.getCalculationBasis(),
+                    outboxEvent.getOccurredAt()
             );
+            case COMMISSION_REFUNDED -> CommissionEvent.commissionRefunded(
+                    commissionId,
+                    transactionId,
+                    outboxEvent.getAmount(),
+                    outboxEvent.getCurrency().name(),
+                    outboxEvent.getOccurredAt()
+            );
+            case COMMISSION_SETTLED -> CommissionEvent.commissionSettled(
+                    commissionId,
+                    transactionId,
+                    outboxEvent.getAmount(),
+                    outboxEvent.getCurrency().name(),
+                    outboxEvent.getSettlementDate(),
+                    outboxEvent.getOccurredAt()
+            );
+        };
 
-            eventPublisher.publish(KafkaTopics.COMMISSION_SETTLED, commission.getCommissionId().toString(), event);
-            log.info("Published COMMISSION_SETTLED event for commission: {}", commission.getCommissionId());
-        } catch (Exception e) {
-            log.error("Error publishing COMMISSION_SETTLED event", e);
+        long start = System.nanoTime();
+        CompletableFuture<SendResult<String, Object>> sent;
+        try {
+            sent = commissionEventKafkaTemplate.send(topic, commissionId, event);
+        } catch (RuntimeException e) {
+            // Metadata wait (max.block.ms) or serialization failed before the record was queued
+            sent = CompletableFuture.failedFuture(e);
         }
+        return sent.whenComplete((result, error) -> {
+            commissionMetrics.recordPublish(outboxEvent.getEventType(), error == null, System.nanoTime() - start);
+            if (error == null) {
+                log.debug("Published {} event for commission: {}", outboxEvent.getEventType(), commissionId);
+            }
+        });
+    }
+
+    private void enqueue(OutboxEventType eventType, CommissionTransaction commission) {
+        commissionOutboxRepository.save(CommissionOutboxEvent.of(eventType, commission));
+        log.debug("Queued {} event for commission: {}", eventType, commission.getCommissionId());
     }
 }
@@ -0,0 +1,23 @@
+package com.payment.commission.service;
+
+import com.payment.commission.dto.request.CommissionExportRequest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Commission Export Service Interface
+ * Streams commission transactions of a period as NDJSON or CSV
+ */
+public interface CommissionExportService {
+
+    /**
+     * Check an export request, before any of the response is written
+     */
+    void validate(CommissionExportRequest request);
+
+    /**
+     * Write every matching commission to the stream, one row at a time
+     */
+    void export(CommissionExportRequest request, OutputStream outputStream) throws IOException;
+}
@@ -0,0 +1,157 @@
+package com.payment.commission.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.payment.commission.domain.enums.ExportFormat;
+import com.payment.commission.dto.request.CommissionExportRequest;
+import com.payment.commission.exception.InvalidDateRangeException;
+import com.payment.commission.repository.CommissionExportRepository;
+import com.payment.common.i18n.MessageService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Commission Export Service Implementation
+ * Each row is written to the response as soon as it is read from the cursor, so
+ * heap use does not grow with the size of the export.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CommissionExportServiceImpl implements CommissionExportService {
+
+    private static final String[] CSV_HEADER = {
+            "commission_id", "transaction_id", "rule_id", "currency", "amount", "status", "settled",
+            "settlement_date", "settlement_batch_id", "created_at", "calculation_basis"};
+
+    private final CommissionExportRepository commissionExportRepository;
+    private final ObjectMapper objectMapper;
+    private final MessageService messageService;
+
+    @Override
+    public void validate(CommissionExportRequest request) {
+        if (request.getEndDate().isBefore(request.getStartDate())) {
+            throw new InvalidDateRangeException(messageService.getMessage("error.report.date.range.invalid"));
+        }
+    }
+
+    // Read-only transaction: the driver only uses a cursor (fetch size) with autocommit off
+    @Override
+    @Transactional(readOnly = true)
+    public void export(CommissionExportRequest request, OutputStream outputStream) throws IOException {
+        validate(request);
+        ExportFormat format = request.getFormat() != null ? request.getFormat() : ExportFormat.NDJSON;
+        long[] rows = new long[1];
+
+        try {
+            if (format == ExportFormat.CSV) {
+                exportCsv(request, outputStream, rows);
+            } else {
+                exportNdjson(request, outputStream, rows);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        log.info("Exported {} commissions from {} to {} as {}",
+                rows[0], request.getStartDate(), request.getEndDate(), format);
+    }
+
+    private void exportNdjson(CommissionExportRequest request, OutputStream outputStream, long[] rows) throws IOException {
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(outputStream)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.setRootValueSeparator(new SerializedString("\n"));
+            stream(request, rs -> {
+                try {
+                    json.writeStartObject();
+                    json.writeStringField("commissionId", rs.getString(1));
+                    json.writeStringField("transactionId", rs.getString(2));
+                    json.writeStringField("ruleId", rs.getString(3));
+                    json.writeStringField("currency", rs.getString(4));
+                    json.writeNumberField("amount", rs.getLong(5));
+                    json.writeStringField("status", rs.getString(6));
+                    json.writeBooleanField("settled", rs.getBoolean(7));
+                    json.writeStringField("settlementDate", isoTimestamp(rs, 8));
+                    json.writeStringField("settlementBatchId", rs.getString(9));
+                    json.writeStringField("createdAt", isoTimestamp(rs, 10));
+                    json.writeFieldName("calculationBasis");
+                    String basis = rs.getString(11);
+                    if (basis != null) {
+                        json.writeRawValue(basis);
+                    } else {
+                        json.writeNull();
+                    }
+                    json.writeEndObject();
+                    rows[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        outputStream.write('\n');
+    }
+
+    private void exportCsv(CommissionExportRequest request, OutputStream outputStream, long[] rows) throws IOException {
+        Writer csv = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+        csv.write(String.join(",", CSV_HEADER));
+        csv.write("\r\n");
+        stream(request, rs -> {
+            try {
+                for (int column = 1; column <= CSV_HEADER.length; column++) {
+                    if (column > 1) {
+                        csv.write(',');
+                    }
+                    String value = column == 8 || column == 10 ? isoTimestamp(rs, column) : rs.getString(column);
+                    if (value != null) {
+                        writeCsvValue(csv, value);
+                    }
+                }
+                csv.write("\r\n");
+                rows[0]++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        csv.flush();
+    }
+
+    private void stream(CommissionExportRequest request, RowCallbackHandler handler) {
+        commissionExportRepository.streamCommissions(request.getStartDate(), request.getEndDate(),
+                request.getCurrency(), request.getStatus(), handler);
+    }
+
+    private static String isoTimestamp(ResultSet rs, int column) throws SQLException {
+        Timestamp timestamp = rs.getTimestamp(column);
+        return timestamp != null ? timestamp.toLocalDateTime().toString() : null;
+    }
+
+    // RFC 4180: quote values containing a separator, quote or line break, doubling embedded quotes
+    private static void writeCsvValue(Writer csv, String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            csv.write(value);
+            return;
+        }
+        csv.write('"');
+        csv.write(value.replace("\"", "\"\""));
+        csv.write('"');
+    }
+}
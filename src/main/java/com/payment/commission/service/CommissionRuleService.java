@@ -1,7 +1,9 @@
 package com.payment.commission.service;
 
 import com.payment.commission.dto.request.CreateRuleRequest;
+import com.payment.commission.dto.request.RuleSimulationRequest;
 import com.payment.commission.dto.request.UpdateRuleRequest;
+import com.payment.commission.dto.response.RuleSimulationResponse;
 import com.payment.common.dto.commission.response.CommissionRuleResponse;
 import com.payment.common.enums.Currency;
 import org.springframework.data.domain.Page;
@@ -21,6 +23,11 @@ public interface CommissionRuleService {
      */
     CommissionRuleResponse createRule(CreateRuleRequest request, UUID createdBy);
 
+    /**
+     * Re-price historical commissions under a candidate rule without creating it
+     */
+    RuleSimulationResponse simulateRule(RuleSimulationRequest request);
+
     /**
      * Update an existing commission rule
      */
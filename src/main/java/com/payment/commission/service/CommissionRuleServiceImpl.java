@@ -2,18 +2,26 @@ package com.payment.commission.service;
 
 import com.payment.commission.domain.entity.CommissionRule;
 import com.payment.commission.dto.request.CreateRuleRequest;
+import com.payment.commission.dto.request.RuleSimulationRequest;
 import com.payment.commission.dto.request.UpdateRuleRequest;
+import com.payment.commission.dto.response.RuleSimulationResponse;
 import com.payment.common.dto.commission.response.CommissionRuleResponse;
+import com.payment.commission.exception.InvalidDateRangeException;
 import com.payment.commission.exception.InvalidRuleException;
 import com.payment.commission.exception.RuleNotFoundException;
 import com.payment.commission.mapper.CommissionRuleMapper;
 import com.payment.commission.repository.CommissionRuleRepository;
+import com.payment.commission.service.rule.RuleSetChangedEvent;
+import com.payment.commission.service.rule.RuleSimulator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import com.payment.common.i18n.MessageService;
 
@@ -32,9 +40,10 @@ public class CommissionRuleServiceImpl implements CommissionRuleService {
     private final CommissionRuleRepository commissionRuleRepository;
     private final CommissionRuleMapper commissionRuleMapper;
     private final MessageService messageService;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final RuleSimulator ruleSimulator;
 
     @Override
-    @CacheEvict(value = "commission-calculation", allEntries = true)
     public CommissionRuleResponse createRule(CreateRuleRequest request, UUID createdBy) {
         log.info("Creating commission rule");
 
@@ -61,13 +70,33 @@ public class CommissionRuleServiceImpl implements CommissionRuleService {
                 .build();
 
         CommissionRule savedRule = commissionRuleRepository.save(rule);
+        applicationEventPublisher.publishEvent(new RuleSetChangedEvent(savedRule.getRuleId()));
         log.info("Commission rule created successfully: {}", savedRule.getRuleId());
 
         return commissionRuleMapper.toResponse(savedRule);
     }
 
+    // No surrounding transaction: each simulated day streams in its own read-only transaction
     @Override
-    @CacheEvict(value = "commission-calculation", allEntries = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public RuleSimulationResponse simulateRule(RuleSimulationRequest request) {
+        CreateRuleRequest candidate = request.getRule();
+        log.info("Simulating {} {} rule from {} to {}", candidate.getCurrency(), candidate.getTransferType(),
+                request.getStartDate(), request.getEndDate());
+
+        validateRule(candidate);
+        if (request.getEndDate().isBefore(request.getStartDate())) {
+            throw new InvalidDateRangeException(messageService.getMessage("error.report.date.range.invalid"));
+        }
+        if (ruleSimulator.exceedsMaxDays(request.getStartDate(), request.getEndDate())) {
+            throw new InvalidDateRangeException(messageService.getMessage("error.simulation.date.range.too.long"));
+        }
+
+        return ruleSimulator.simulate(candidate, request.getStartDate(), request.getEndDate());
+    }
+
+    @Override
+    @CacheEvict(value = {"commission-rules", "commission-calculation"}, key = "#ruleId")
     public CommissionRuleResponse updateRule(UUID ruleId, UpdateRuleRequest request) {
         log.info("Updating commission rule: {}", ruleId);
 
@@ -106,6 +135,7 @@ public class CommissionRuleServiceImpl implements CommissionRuleService {
         }
 
         CommissionRule updatedRule = commissionRuleRepository.save(rule);
+        applicationEventPublisher.publishEvent(new RuleSetChangedEvent(ruleId));
         log.info("Commission rule updated successfully: {}", ruleId);
 
         return commissionRuleMapper.toResponse(updatedRule);
@@ -113,6 +143,7 @@ public class CommissionRuleServiceImpl implements CommissionRuleService {
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(value = "commission-rules", key = "#ruleId")
     public CommissionRuleResponse getRuleById(UUID ruleId) {
         CommissionRule rule = commissionRuleRepository.findById(ruleId)
                 .orElseThrow(() -> new RuleNotFoundException(
@@ -149,7 +180,7 @@ public class CommissionRuleServiceImpl implements CommissionRuleService {
     }
 
     @Override
-    @CacheEvict(value = "commission-calculation", allEntries = true)
+    @CacheEvict(value = {"commission-rules", "commission-calculation"}, key = "#ruleId")
     public void deactivateRule(UUID ruleId) {
         log.info("Deactivating commission rule: {}", ruleId);
 
@@ -160,12 +191,13 @@ public class CommissionRuleServiceImpl implements CommissionRuleService {
 
         rule.setIsActive(false);
         commissionRuleRepository.save(rule);
+        applicationEventPublisher.publishEvent(new RuleSetChangedEvent(ruleId));
 
         log.info("Commission rule deactivated: {}", ruleId);
     }
 
     @Override
-    @CacheEvict(value = "commission-calculation", allEntries = true)
+    @CacheEvict(value = {"commission-rules", "commission-calculation"}, key = "#ruleId")
     public void activateRule(UUID ruleId) {
         log.info("Activating commission rule: {}", ruleId);
 
@@ -176,6 +208,7 @@ public class CommissionRuleServiceImpl implements CommissionRuleService {
 
         rule.setIsActive(true);
         commissionRuleRepository.save(rule);
+        applicationEventPublisher.publishEvent(new RuleSetChangedEvent(ruleId));
 
         log.info("Commission rule activated: {}", ruleId);
     }
@@ -1,12 +1,20 @@
 package com.payment.commission.service;
 
+import com.payment.commission.domain.entity.CommissionTransaction;
+import com.payment.commission.dto.event.RejectedTransactionEvent;
+import com.payment.commission.dto.event.TransactionCompletedEvent;
+import com.payment.commission.dto.request.AutoCalculateFeeRequest;
+import com.payment.commission.dto.response.BatchFeeCalculationResult;
+import com.payment.commission.dto.response.FeeCalculationResult;
 import com.payment.common.enums.Currency;
 import com.payment.common.enums.KYCLevel;
 import com.payment.common.enums.TransferType;
 import com.payment.common.dto.commission.request.CalculateFeeRequest;
-import com.payment.common.dto.commission.response.FeeCalculationResponse;
 
+import java.util.Iterator;
+import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * Commission Service Interface
@@ -17,13 +25,34 @@ public interface CommissionService {
     /**
      * Calculate fee for a transaction
      */
-    FeeCalculationResponse calculateFee(CalculateFeeRequest request);
+    FeeCalculationResult calculateFee(CalculateFeeRequest request);
+
+    /**
+     * Calculate fee for a transaction, selecting the best matching rule when no ruleId is given
+     */
+    FeeCalculationResult calculateFee(AutoCalculateFeeRequest request);
+
+    /**
+     * Calculate fees for a batch of transactions
+     * Results are handed to the consumer one by one, in request order, and a
+     * failing item is reported in its result instead of failing the batch
+     */
+    void calculateFees(Iterator<CalculateFeeRequest> requests, Consumer<BatchFeeCalculationResult> results);
 
     /**
      * Record commission for a completed transaction
+     * Idempotent per transaction: a repeated call returns the commission already recorded
+     */
+    CommissionTransaction recordCommission(UUID transactionId, UUID ruleId,
+                                           Long amount, Currency currency, String calculationBasis);
+
+    /**
+     * Record commissions for a batch of completed transactions in one DB transaction
+     * Each fee is calculated with the rule as it was effective when the transaction completed.
+     * Transactions that already have a commission are skipped.
+     * @return the events that cannot be recorded (incomplete, or whose rule or amount is rejected)
      */
-    void recordCommission(UUID transactionId, UUID ruleId,
-                         Long amount, Currency currency, String calculationBasis);
+    List<RejectedTransactionEvent> recordCommissions(List<TransactionCompletedEvent> events);
 
     /**
      * Calculate BCEAO-compliant fee
@@ -1,23 +1,52 @@
 package com.payment.commission.service;
 
-import com.payment.commission.domain.entity.CommissionRule;
 import com.payment.commission.domain.entity.CommissionTransaction;
 import com.payment.commission.domain.enums.CommissionStatus;
+import com.payment.commission.domain.id.UuidV7;
+import com.payment.commission.dto.event.RejectedTransactionEvent;
+import com.payment.commission.dto.event.TransactionCompletedEvent;
+import com.payment.commission.dto.request.AutoCalculateFeeRequest;
+import com.payment.commission.dto.response.BatchFeeCalculationResult;
+import com.payment.commission.dto.response.CalculationDetails;
+import com.payment.commission.dto.response.FeeCalculationResult;
+import com.payment.commission.exception.ErrorCodes;
+import com.payment.commission.exception.NoMatchingRuleException;
+import com.payment.commission.exception.RuleNotFoundException;
 import com.payment.common.enums.Currency;
 import com.payment.common.enums.KYCLevel;
 import com.payment.common.enums.TransferType;
 import com.payment.common.dto.commission.request.CalculateFeeRequest;
-import com.payment.common.dto.commission.response.FeeCalculationResponse;
+import com.payment.commission.repository.CommissionBatchRepository;
 import com.payment.commission.repository.CommissionTransactionRepository;
+import com.payment.commission.repository.RevenueRollupRepository;
+import com.payment.commission.service.idempotency.RecentTransactionIds;
+import com.payment.commission.service.metrics.CommissionMetrics;
+import com.payment.commission.service.metrics.CommissionMetrics.DbWrite;
+import com.payment.commission.service.rule.CompiledRule;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import com.payment.common.i18n.MessageService;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  * Commission Service Implementation
@@ -30,56 +59,162 @@ public class CommissionServiceImpl implements CommissionService {
 
     private final FeeCalculationEngine feeCalculationEngine;
     private final CommissionTransactionRepository commissionTransactionRepository;
+    private final CommissionBatchRepository commissionBatchRepository;
+    private final RevenueRollupRepository revenueRollupRepository;
     private final CommissionEventPublisher eventPublisher;
+    private final CommissionMetrics commissionMetrics;
+    private final RecentTransactionIds recentTransactionIds;
     private final MessageService messageService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
 
     @Override
-    @Transactional(readOnly = true)
-    public FeeCalculationResponse calculateFee(CalculateFeeRequest request) {
-        log.info("Calculating fee for request with ruleId: {}", request.getRuleId());
+    @Transactional(propagation = Propagation.SUPPORTS)
+    // The rule epoch is part of the key so a cached fee never outlives an effective date boundary
+    @Cacheable(value = "commission-calculation",
+            key = "#request.ruleId + ':' + #request.amount + ':' + #request.currency + ':' + #request.transferType"
+                    + " + ':' + @commissionRuleRegistry.current().epochStart")
+    public FeeCalculationResult calculateFee(CalculateFeeRequest request) {
+        log.debug("Calculating fee for request with ruleId: {}", request.getRuleId());
 
-        // Get the specified commission rule
-        CommissionRule rule = feeCalculationEngine.getRuleById(request.getRuleId());
+        // Resolve the specified commission rule from the in-memory rule snapshot
+        CompiledRule rule = feeCalculationEngine.getEffectiveRule(request.getRuleId());
 
         // Calculate fee using the specified rule
-        Long feeAmount = feeCalculationEngine.calculateFeeByRuleId(
-                request.getRuleId(),
-                request.getAmount()
-        );
-
-        // Build calculation details with rule information
-        Map<String, Object> calculationDetails = new HashMap<>();
-        calculationDetails.put("ruleId", rule.getRuleId());
-        calculationDetails.put("transferType", rule.getTransferType());
-        calculationDetails.put("percentage", rule.getPercentage());
-        calculationDetails.put("fixedAmount", rule.getFixedAmount());
-        calculationDetails.put("minAmount", rule.getMinAmount());
-        calculationDetails.put("maxAmount", rule.getMaxAmount());
-        calculationDetails.put("priority", rule.getPriority());
-        calculationDetails.put("kycLevel", rule.getKycLevel());
-        calculationDetails.put("finalAmount", feeAmount);
-        calculationDetails.put("ruleDescription", rule.getDescription());
-        calculationDetails.put("requestedAmount", request.getAmount());
-        calculationDetails.put("requestedCurrency", request.getCurrency());
-        calculationDetails.put("requestedTransferType", request.getTransferType());
-
-        return FeeCalculationResponse.builder()
-                .amount(request.getAmount())
-                .currency(request.getCurrency())
+        long feeAmount = feeCalculationEngine.calculateFee(rule, request.getAmount());
+
+        return buildResponse(request.getAmount(), request.getCurrency(), request.getTransferType(), rule, feeAmount);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public FeeCalculationResult calculateFee(AutoCalculateFeeRequest request) {
+        // Use the given rule, or pick the best matching one from the in-memory rule index
+        CompiledRule rule = request.getRuleId() != null
+                ? feeCalculationEngine.getEffectiveRule(request.getRuleId())
+                : feeCalculationEngine.findBestMatchingRule(request.getAmount(), request.getCurrency(),
+                        request.getTransferType(), request.getKycLevel());
+        log.debug("Calculating fee for {} {} with rule {}", request.getAmount(), request.getCurrency(), rule.getRuleId());
+
+        long feeAmount = feeCalculationEngine.calculateFee(rule, request.getAmount());
+
+        return buildResponse(request.getAmount(), request.getCurrency(), request.getTransferType(), rule, feeAmount);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void calculateFees(Iterator<CalculateFeeRequest> requests, Consumer<BatchFeeCalculationResult> results) {
+        // Each distinct rule is resolved once per batch, including the lookups that fail
+        Map<UUID, CompiledRule> resolvedRules = new HashMap<>();
+        Map<UUID, RuleNotFoundException> unresolvedRules = new HashMap<>();
+
+        int index = 0;
+        int failures = 0;
+        while (true) {
+            CalculateFeeRequest request;
+            try {
+                if (!requests.hasNext()) {
+                    break;
+                }
+                request = requests.next();
+            } catch (RuntimeJsonMappingException e) {
+                // The item could not be bound, but the stream itself is still readable
+                results.accept(BatchFeeCalculationResult.failure(index++, ErrorCodes.VALIDATION_ERROR,
+                        messageService.getMessage("error.json.malformed")));
+                failures++;
+                continue;
+            } catch (RuntimeException e) {
+                log.warn("Batch fee calculation stopped at item {}: {}", index, e.getMessage());
+                results.accept(BatchFeeCalculationResult.failure(index, ErrorCodes.VALIDATION_ERROR,
+                        messageService.getMessage("error.json.malformed")));
+                failures++;
+                break;
+            }
+
+            BatchFeeCalculationResult result = calculateBatchItem(index++, request, resolvedRules, unresolvedRules);
+            if (!result.isSuccess()) {
+                failures++;
+            }
+            results.accept(result);
+        }
+
+        log.info("Batch fee calculation completed: {} items, {} failed, {} distinct rules",
+                index, failures, resolvedRules.size() + unresolvedRules.size());
+    }
+
+    private BatchFeeCalculationResult calculateBatchItem(int index, CalculateFeeRequest request,
+                                                         Map<UUID, CompiledRule> resolvedRules,
+                                                         Map<UUID, RuleNotFoundException> unresolvedRules) {
+        Set<ConstraintViolation<CalculateFeeRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " +
+                            messageService.getMessageOrDefault(violation.getMessage(), violation.getMessage()))
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+            return BatchFeeCalculationResult.failure(index, ErrorCodes.VALIDATION_ERROR, message);
+        }
+
+        UUID ruleId = request.getRuleId();
+        try {
+            RuleNotFoundException unresolved = unresolvedRules.get(ruleId);
+            if (unresolved != null) {
+                throw unresolved;
+            }
+            CompiledRule rule = resolvedRules.get(ruleId);
+            if (rule == null) {
+                try {
+                    rule = feeCalculationEngine.getEffectiveRule(ruleId);
+                } catch (RuleNotFoundException e) {
+                    unresolvedRules.put(ruleId, e);
+                    throw e;
+                }
+                resolvedRules.put(ruleId, rule);
+            }
+
+            long feeAmount = feeCalculationEngine.calculateFee(rule, request.getAmount());
+            return BatchFeeCalculationResult.success(index, buildResponse(
+                    request.getAmount(), request.getCurrency(), request.getTransferType(), rule, feeAmount));
+        } catch (RuleNotFoundException e) {
+            return BatchFeeCalculationResult.failure(index, ErrorCodes.RULE_NOT_FOUND, e.getMessage());
+        } catch (NoMatchingRuleException e) {
+            return BatchFeeCalculationResult.failure(index, ErrorCodes.NO_MATCHING_RULE, e.getMessage());
+        } catch (ArithmeticException e) {
+            return BatchFeeCalculationResult.failure(index, ErrorCodes.INVALID_AMOUNT,
+                    messageService.getMessage("error.invalid.amount"));
+        }
+    }
+
+    private FeeCalculationResult buildResponse(Long amount, Currency currency, TransferType transferType,
+                                               CompiledRule rule, long feeAmount) {
+        // Rule details are precomputed per rule; only the amount-dependent fields vary
+        return FeeCalculationResult.builder()
+                .amount(amount)
+                .currency(currency)
                 .commissionAmount(feeAmount)
                 .ruleId(rule.getRuleId())
-                .transferType(request.getTransferType())
-                .calculationDetails(calculationDetails)
+                .transferType(transferType)
+                .calculationDetails(new CalculationDetails(
+                        rule.getCalculationDetails(), feeAmount, amount, currency, transferType))
                 .build();
     }
 
-
     @Override
-    public void recordCommission(UUID transactionId, UUID ruleId,
-                                 Long amount, Currency currency, String calculationBasis) {
+    public CommissionTransaction recordCommission(UUID transactionId, UUID ruleId,
+                                                  Long amount, Currency currency, String calculationBasis) {
         log.info("Recording commission: transaction={}, amount={} {}", transactionId, amount, currency);
 
+        // Fast path for retries of a recently recorded transaction: no DB write
+        if (recentTransactionIds.contains(transactionId)) {
+            Optional<CommissionTransaction> existing = commissionTransactionRepository.findByTransactionId(transactionId);
+            if (existing.isPresent()) {
+                log.info("Commission already recorded for transaction {}: {}", transactionId, existing.get().getCommissionId());
+                return existing.get();
+            }
+        }
+
         CommissionTransaction commission = CommissionTransaction.builder()
+                .commissionId(UuidV7.randomUuid())
                 .transactionId(transactionId)
                 .ruleId(ruleId)
                 .amount(amount)
@@ -87,14 +222,102 @@ public class CommissionServiceImpl implements CommissionService {
                 .calculationBasis(calculationBasis)
                 .status(CommissionStatus.COMPLETED)
                 .settled(false)
+                .createdAt(LocalDateTime.now())
                 .build();
 
-        commissionTransactionRepository.save(commission);
+        long writeStart = System.nanoTime();
+        if (!commissionBatchRepository.insertCommission(commission)) {
+            CommissionTransaction existing = commissionTransactionRepository.findByTransactionId(transactionId)
+                    .orElseThrow(() -> new IllegalStateException("Commission for transaction " + transactionId + " vanished"));
+            recentTransactionIds.markRecorded(transactionId);
+            log.info("Commission already recorded for transaction {}: {}", transactionId, existing.getCommissionId());
+            return existing;
+        }
 
-        // Publish event
+        revenueRollupRepository.addCollected(List.of(commission));
+
+        // Queue event for the outbox relay
         eventPublisher.publishCommissionCollected(commission);
+        commissionMetrics.recordDbWrite(DbWrite.RECORD, System.nanoTime() - writeStart);
+        recentTransactionIds.markRecorded(transactionId);
 
         log.info("Commission recorded successfully: {}", commission.getCommissionId());
+        return commission;
+    }
+
+    @Override
+    public List<RejectedTransactionEvent> recordCommissions(List<TransactionCompletedEvent> events) {
+        List<CommissionTransaction> commissions = new ArrayList<>(events.size());
+        List<RejectedTransactionEvent> rejected = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        int duplicates = 0;
+
+        for (TransactionCompletedEvent event : events) {
+            if (!event.isComplete()) {
+                log.error("Rejecting incomplete TRANSACTION_COMPLETED event for transaction: {}", event.getTransactionId());
+                rejected.add(new RejectedTransactionEvent(event,
+                        new IllegalArgumentException("Incomplete TRANSACTION_COMPLETED event")));
+                continue;
+            }
+            if (recentTransactionIds.contains(event.getTransactionId())) {
+                duplicates++;
+                continue;
+            }
+            // Priced and dated as of completion, so a late or redelivered event is recorded as it would have been
+            LocalDateTime completedAt = event.getCompletedAt() != null ? event.getCompletedAt() : now;
+            try {
+                CompiledRule rule = feeCalculationEngine.getRuleEffectiveAt(event.getRuleId(), completedAt);
+                long feeAmount = feeCalculationEngine.calculateFee(rule, event.getAmount());
+
+                commissions.add(CommissionTransaction.builder()
+                        .commissionId(UuidV7.randomUuid())
+                        .transactionId(event.getTransactionId())
+                        .ruleId(rule.getRuleId())
+                        .amount(feeAmount)
+                        .currency(event.getCurrency())
+                        .calculationBasis(toCalculationBasis(event, rule, feeAmount))
+                        .status(CommissionStatus.COMPLETED)
+                        .settled(false)
+                        .createdAt(completedAt)
+                        .build());
+            } catch (RuleNotFoundException | NoMatchingRuleException | ArithmeticException e) {
+                log.error("Rejecting commission for transaction {}: {}", event.getTransactionId(), e.getMessage());
+                rejected.add(new RejectedTransactionEvent(event, e));
+            }
+        }
+
+        // Transactions that already have a commission are skipped by the insert and get no event
+        long writeStart = System.nanoTime();
+        int inserted = commissionBatchRepository.insertCommissions(commissions);
+        revenueRollupRepository.addCollected(commissions);
+
+        // Queue events for the outbox relay
+        eventPublisher.publishCommissionsCollected(commissions);
+        commissionMetrics.recordDbWrite(DbWrite.RECORD_BATCH, System.nanoTime() - writeStart);
+        recentTransactionIds.markRecorded(commissions.stream().map(CommissionTransaction::getTransactionId).toList());
+
+        log.info("Recorded {} commissions from {} completed transactions ({} recent and {} stored duplicates skipped, {} rejected)",
+                inserted, events.size(), duplicates, commissions.size() - inserted, rejected.size());
+        return rejected;
+    }
+
+    private String toCalculationBasis(TransactionCompletedEvent event, CompiledRule rule, long feeAmount) {
+        Map<String, Object> basis = new HashMap<>();
+        basis.put("ruleId", rule.getRuleId());
+        basis.put("percentage", rule.getPercentage());
+        basis.put("fixedAmount", rule.getFixedAmount());
+        basis.put("minAmount", rule.getMinAmount());
+        basis.put("maxAmount", rule.getMaxAmount());
+        basis.put("finalAmount", feeAmount);
+        basis.put("requestedAmount", event.getAmount());
+        basis.put("requestedCurrency", event.getCurrency());
+        basis.put("requestedTransferType", event.getTransferType());
+        try {
+            return objectMapper.writeValueAsString(basis);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize calculation basis", e);
+        }
     }
 
     @Override
@@ -109,10 +332,15 @@ public class CommissionServiceImpl implements CommissionService {
 
         commissionTransactionRepository.findByTransactionId(transactionId)
                 .ifPresent(commission -> {
+                    if (commission.getStatus() == CommissionStatus.REFUNDED) {
+                        log.info("Commission already refunded: {}", commission.getCommissionId());
+                        return;
+                    }
                     commission.markAsRefunded();
                     commissionTransactionRepository.save(commission);
+                    revenueRollupRepository.addRefunded(commission);
 
-                    // Publish refund event
+                    // Queue refund event for the outbox relay
                     eventPublisher.publishCommissionRefunded(commission);
 
                     log.info("Commission refunded: {}", commission.getCommissionId());
@@ -1,19 +1,25 @@
 package com.payment.commission.service;
 
 import com.payment.commission.domain.entity.CommissionRule;
+import com.payment.commission.domain.model.BceaoTariff;
 import com.payment.commission.exception.RuleNotFoundException;
 import com.payment.common.enums.Currency;
 import com.payment.common.enums.KYCLevel;
 import com.payment.common.enums.TransferType;
 import com.payment.commission.exception.NoMatchingRuleException;
 import com.payment.commission.repository.CommissionRuleRepository;
+import com.payment.commission.service.metrics.CommissionMetrics;
+import com.payment.commission.service.metrics.CommissionMetrics.RuleLookup;
+import com.payment.commission.service.rule.CommissionRuleRegistry;
+import com.payment.commission.service.rule.CompiledRule;
+import com.payment.commission.service.rule.RuleSnapshot;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.payment.common.i18n.MessageService;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -24,41 +30,33 @@ import java.util.UUID;
 @Service
 @RequiredArgsConstructor
 @Slf4j
-@Transactional(readOnly = true)
 public class FeeCalculationEngine {
 
     private final CommissionRuleRepository commissionRuleRepository;
+    private final CommissionRuleRegistry commissionRuleRegistry;
+    private final CommissionMetrics commissionMetrics;
     private final MessageService messageService;
 
-    private static final Long BCEAO_FREE_THRESHOLD = 5000L; // XOF
-    private static final Long BCEAO_FIXED_FEE = 100L;       // XOF
-    private static final Double BCEAO_PERCENTAGE = 0.005;   // 0.5%
-    private static final Long BCEAO_MAX_FEE = 1000L;        // XOF
+    private final BceaoTariff bceaoTariff;
 
     /**
-     * Calculate fee using BCEAO rules
+     * Calculate fee using BCEAO rules (commission.bceao.*)
      * Rules:
      * - Amount <= 5,000 XOF: FREE (financial inclusion)
-     * - Amount > 5,000 XOF: 100 XOF + 0.5%, capped at 1,000 XOF
+     * - Amount > 5,000 XOF: 100 XOF + 0.5% rounded down, capped at 1,000 XOF
      */
     public Long calculateBCEAOFee(Long amount) {
-        // Financial inclusion: FREE for amounts <= 5,000 XOF
-        if (amount <= BCEAO_FREE_THRESHOLD) {
-            log.info("Amount {} XOF <= {} XOF: FREE (BCEAO financial inclusion)", amount, BCEAO_FREE_THRESHOLD);
-            return 0L;
-        }
-
-        // Calculate: 100 XOF + 0.5% of amount
-        Long percentageFee = Math.round(amount * BCEAO_PERCENTAGE);
-        Long totalFee = BCEAO_FIXED_FEE + percentageFee;
-
-        // Cap at 1,000 XOF
-        Long finalFee = Math.min(totalFee, BCEAO_MAX_FEE);
-
-        log.info("BCEAO fee for {} XOF: {} (fixed: {}, percentage: {}, capped at: {})",
-                amount, finalFee, BCEAO_FIXED_FEE, percentageFee, BCEAO_MAX_FEE);
+        long fee = bceaoTariff.calculate(amount);
+        log.debug("BCEAO fee for {} XOF: {}", amount, fee);
+        return fee;
+    }
 
-        return finalFee;
+    /**
+     * Calculate BCEAO fees for many amounts
+     * @return the fee of each amount at the same index
+     */
+    public long[] calculateBCEAOFees(long[] amounts) {
+        return bceaoTariff.calculate(amounts);
     }
 
     /**
@@ -68,67 +66,144 @@ public class FeeCalculationEngine {
      * @return The calculated fee amount
      */
     public Long calculateFeeByRuleId(UUID ruleId, Long amount) {
-        log.info("Calculating fee using rule ID: {} for amount: {}", ruleId, amount);
+        return calculateFee(getEffectiveRule(ruleId), amount);
+    }
 
-        // Get the specific rule by ID
-        CommissionRule rule = commissionRuleRepository.findById(ruleId)
-                .orElseThrow(() -> new RuleNotFoundException(
-                        messageService.getMessage("error.rule.not.found") + ": " + ruleId
-                ));
+    /**
+     * Calculate fee for an amount using an already resolved rule
+     * Verifies the transaction amount is within the rule's min/max amount limits.
+     * Called once per item on the batch paths, so it does not log successful calculations.
+     */
+    public long calculateFee(CompiledRule rule, long amount) {
+        // Verify transaction amount is within min/max amount limits
+        if (rule.isHasMinAmount() && amount < rule.getMinAmountValue()) {
+            log.warn("Transaction amount {} is below minimum {} for rule {}", amount, rule.getMinAmountValue(), rule.getRuleId());
+            throw commissionMetrics.ruleError(new NoMatchingRuleException(
+                    messageService.getMessage("error.amount.below.minimum") +
+                    " (Min: " + rule.getMinAmountValue() + " " + rule.getCurrency() + ")"
+            ));
+        }
+
+        if (rule.isHasMaxAmount() && amount > rule.getMaxAmountValue()) {
+            log.warn("Transaction amount {} exceeds maximum {} for rule {}", amount, rule.getMaxAmountValue(), rule.getRuleId());
+            throw commissionMetrics.ruleError(new NoMatchingRuleException(
+                    messageService.getMessage("error.amount.above.maximum") +
+                    " (Max: " + rule.getMaxAmountValue() + " " + rule.getCurrency() + ")"
+            ));
+        }
+
+        // Calculate fee using the rule
+        return rule.calculateFee(amount);
+    }
+
+    /**
+     * Calculate the fees of many amounts with one rule, for reconciliation and simulation
+     * jobs pricing historical amounts. The rule need not be currently effective and its
+     * amount limits are not checked.
+     * @return the fee of each amount at the same index
+     * @throws ArithmeticException if a fee overflows a long
+     */
+    public long[] calculateFees(UUID ruleId, long[] amounts) {
+        CompiledRule rule = getRuleById(ruleId);
+        long[] fees = rule.calculateFees(amounts);
+        log.debug("Calculated {} fees using rule {}", fees.length, ruleId);
+        return fees;
+    }
+
+    /**
+     * Get an active commission rule effective in the current rule epoch by ID from the rule snapshot
+     */
+    public CompiledRule getEffectiveRule(UUID ruleId) {
+        RuleSnapshot snapshot = commissionRuleRegistry.current();
+        CompiledRule rule = snapshot.get(ruleId);
+        boolean usable = rule != null && rule.isActive() && snapshot.isEffective(ruleId);
+        commissionMetrics.ruleLookup(RuleLookup.ID, usable);
+        if (rule == null) {
+            throw commissionMetrics.ruleError(new RuleNotFoundException(
+                    messageService.getMessage("error.rule.not.found") + ": " + ruleId
+            ));
+        }
 
         // Check if rule is active
-        if (!rule.getIsActive()) {
-            throw new RuleNotFoundException(
+        if (!rule.isActive()) {
+            throw commissionMetrics.ruleError(new RuleNotFoundException(
                     messageService.getMessage("error.rule.not.active") + ": " + ruleId
-            );
+            ));
         }
 
-        // Check if rule is currently effective (within date range)
-        if (!rule.isEffective()) {
-            throw new RuleNotFoundException(
+        // Check if rule is effective (within date range) in the current epoch
+        if (!snapshot.isEffective(ruleId)) {
+            throw commissionMetrics.ruleError(new RuleNotFoundException(
                     messageService.getMessage("error.rule.not.effective") + ": " + ruleId
-            );
+            ));
         }
 
-        // Verify transaction amount is within min/max amount limits
-        if (rule.getMinAmount() != null && amount < rule.getMinAmount()) {
-            log.warn("Transaction amount {} is below minimum {} for rule {}", amount, rule.getMinAmount(), ruleId);
-            throw new NoMatchingRuleException(
-                    messageService.getMessage("error.amount.below.minimum") +
-                    " (Min: " + rule.getMinAmount() + " " + rule.getCurrency() + ")"
-            );
+        return rule;
+    }
+
+    /**
+     * Get an active commission rule by ID that was effective at the given instant from the rule snapshot,
+     * e.g. to price a transaction as of its completion
+     */
+    public CompiledRule getRuleEffectiveAt(UUID ruleId, LocalDateTime at) {
+        CompiledRule rule = commissionRuleRegistry.find(ruleId);
+        commissionMetrics.ruleLookup(RuleLookup.ID, rule != null && rule.isEffectiveAt(at));
+        if (rule == null) {
+            throw commissionMetrics.ruleError(new RuleNotFoundException(
+                    messageService.getMessage("error.rule.not.found") + ": " + ruleId
+            ));
         }
 
-        if (rule.getMaxAmount() != null && amount > rule.getMaxAmount()) {
-            log.warn("Transaction amount {} exceeds maximum {} for rule {}", amount, rule.getMaxAmount(), ruleId);
-            throw new NoMatchingRuleException(
-                    messageService.getMessage("error.amount.above.maximum") +
-                    " (Max: " + rule.getMaxAmount() + " " + rule.getCurrency() + ")"
-            );
+        if (!rule.isActive()) {
+            throw commissionMetrics.ruleError(new RuleNotFoundException(
+                    messageService.getMessage("error.rule.not.active") + ": " + ruleId
+            ));
         }
 
-        // Calculate fee using the rule
-        Long fee = rule.calculateFee(amount);
-        log.info("Fee calculated using rule {}: {} {}", rule.getRuleId(), fee, rule.getCurrency());
+        if (!rule.isEffectiveAt(at)) {
+            throw commissionMetrics.ruleError(new RuleNotFoundException(
+                    messageService.getMessage("error.rule.not.effective") + ": " + ruleId + " (" + at + ")"
+            ));
+        }
 
-        return fee;
+        return rule;
     }
 
     /**
-     * Get commission rule by ID
+     * Get commission rule by ID from the rule snapshot
      */
-    public CommissionRule getRuleById(UUID ruleId) {
-        return commissionRuleRepository.findById(ruleId)
-                .orElseThrow(() -> new RuleNotFoundException(
-                        messageService.getMessage("error.rule.not.found") + ": " + ruleId
-                ));
+    public CompiledRule getRuleById(UUID ruleId) {
+        CompiledRule rule = commissionRuleRegistry.find(ruleId);
+        if (rule == null) {
+            throw commissionMetrics.ruleError(new RuleNotFoundException(
+                    messageService.getMessage("error.rule.not.found") + ": " + ruleId
+            ));
+        }
+        return rule;
+    }
+
+    /**
+     * Get the highest priority effective rule matching a transaction from the rule snapshot
+     */
+    public CompiledRule findBestMatchingRule(long amount, Currency currency,
+                                             TransferType transferType, KYCLevel kycLevel) {
+        CompiledRule rule = commissionRuleRegistry.match(amount, currency, transferType, kycLevel);
+        commissionMetrics.ruleLookup(RuleLookup.MATCH, rule != null);
+        if (rule == null) {
+            throw commissionMetrics.ruleError(new NoMatchingRuleException(
+                    messageService.getMessage("error.no.matching.rule") +
+                    " (" + amount + " " + currency + ", " + transferType + ", KYC: " + kycLevel + ")"
+            ));
+        }
+        return rule;
     }
 
     /**
      * Get matching rule for transaction
-     * @deprecated Use getRuleById with explicit ruleId instead
+     * @deprecated Use getRuleById with explicit ruleId, or findBestMatchingRule, instead
      */
     @Deprecated
+    @Transactional(readOnly = true)
     public CommissionRule findMatchingRule(Long amount, Currency currency,
                                            TransferType transferType, KYCLevel kycLevel) {
         List<CommissionRule> rules = commissionRuleRepository.findActiveRulesByCurrencyAndType(
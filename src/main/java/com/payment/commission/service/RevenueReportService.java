@@ -0,0 +1,16 @@
+package com.payment.commission.service;
+
+import com.payment.commission.dto.request.RevenueReportRequest;
+import com.payment.commission.dto.response.RevenueReportResponse;
+
+/**
+ * Revenue Report Service Interface
+ * Builds commission revenue reports from the daily revenue rollup
+ */
+public interface RevenueReportService {
+
+    /**
+     * Generate a revenue report for a date range
+     */
+    RevenueReportResponse generateReport(RevenueReportRequest request);
+}
@@ -0,0 +1,69 @@
+package com.payment.commission.service;
+
+import com.payment.commission.domain.enums.RevenueGroupBy;
+import com.payment.commission.dto.request.RevenueReportRequest;
+import com.payment.commission.dto.response.RevenueReportGroup;
+import com.payment.commission.dto.response.RevenueReportResponse;
+import com.payment.commission.exception.InvalidDateRangeException;
+import com.payment.commission.repository.RevenueRollupRepository;
+import com.payment.common.i18n.MessageService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Revenue Report Service Implementation
+ * Reads at most one rollup row per day, currency and transfer type in the range
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class RevenueReportServiceImpl implements RevenueReportService {
+
+    private final RevenueRollupRepository revenueRollupRepository;
+    private final MessageService messageService;
+
+    @Override
+    public RevenueReportResponse generateReport(RevenueReportRequest request) {
+        if (request.getEndDate().isBefore(request.getStartDate())) {
+            throw new InvalidDateRangeException(messageService.getMessage("error.report.date.range.invalid"));
+        }
+
+        RevenueGroupBy groupBy = request.getGroupBy() != null ? request.getGroupBy() : RevenueGroupBy.DAY;
+
+        List<RevenueReportGroup> groups = revenueRollupRepository.aggregate(
+                request.getStartDate(), request.getEndDate(), groupBy,
+                request.getCurrency(), request.getTransferType());
+
+        long collectedAmount = 0;
+        long refundedAmount = 0;
+        long transactionCount = 0;
+        for (RevenueReportGroup group : groups) {
+            collectedAmount += group.getCollectedAmount();
+            refundedAmount += group.getRefundedAmount();
+            transactionCount += group.getTransactionCount();
+        }
+        long totalRevenue = collectedAmount - refundedAmount;
+
+        log.debug("Revenue report {} to {} by {}: {} groups, revenue {}",
+                request.getStartDate(), request.getEndDate(), groupBy, groups.size(), totalRevenue);
+
+        return RevenueReportResponse.builder()
+                .startDate(request.getStartDate())
+                .endDate(request.getEndDate())
+                .groupBy(groupBy)
+                .currency(request.getCurrency())
+                .transferType(request.getTransferType())
+                .totalRevenue(totalRevenue)
+                .collectedAmount(collectedAmount)
+                .refundedAmount(refundedAmount)
+                .transactionCount(transactionCount)
+                .averageCommission(transactionCount > 0 ? totalRevenue / transactionCount : 0L)
+                .groups(groups)
+                .build();
+    }
+}
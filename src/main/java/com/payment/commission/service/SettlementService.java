@@ -0,0 +1,29 @@
+package com.payment.commission.service;
+
+import com.payment.commission.dto.request.SettlementRequest;
+import com.payment.commission.dto.response.SettlementBatchResponse;
+
+import java.util.UUID;
+
+/**
+ * Settlement Service Interface
+ * Settles unsettled commissions in batches
+ */
+public interface SettlementService {
+
+    /**
+     * Start a settlement run in the background
+     * @return the batch header in RUNNING state
+     */
+    SettlementBatchResponse startSettlement(SettlementRequest request);
+
+    /**
+     * Run a settlement to completion on the calling thread
+     */
+    SettlementBatchResponse settle(SettlementRequest request);
+
+    /**
+     * Get a settlement batch by ID
+     */
+    SettlementBatchResponse getBatch(UUID batchId);
+}
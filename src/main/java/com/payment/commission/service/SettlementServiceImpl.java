@@ -0,0 +1,133 @@
+package com.payment.commission.service;
+
+import com.payment.commission.domain.entity.SettlementBatch;
+import com.payment.commission.domain.enums.SettlementBatchStatus;
+import com.payment.commission.dto.request.SettlementRequest;
+import com.payment.commission.dto.response.SettlementBatchResponse;
+import com.payment.commission.exception.SettlementBatchNotFoundException;
+import com.payment.commission.repository.SettlementBatchRepository;
+import com.payment.commission.repository.SettlementRepository;
+import com.payment.commission.repository.SettlementRepository.SettledChunk;
+import com.payment.common.i18n.MessageService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Settlement Service Implementation
+ *
+ * A run walks unsettled commissions in keyset-paged chunks. Each chunk is settled
+ * by a single set-based statement in its own short transaction, together with the
+ * batch header totals, so memory stays bounded by the chunk size and a failed run
+ * keeps everything settled before the failure.
+ */
+@Service
+@Slf4j
+public class SettlementServiceImpl implements SettlementService {
+
+    private final SettlementBatchRepository settlementBatchRepository;
+    private final SettlementRepository settlementRepository;
+    private final MessageService messageService;
+    private final TaskExecutor taskExecutor;
+    private final TransactionTemplate chunkTransaction;
+    private final int chunkSize;
+
+    public SettlementServiceImpl(SettlementBatchRepository settlementBatchRepository,
+                                 SettlementRepository settlementRepository,
+                                 MessageService messageService,
+                                 @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${commission.settlement.chunk-size:5000}") int chunkSize) {
+        this.settlementBatchRepository = settlementBatchRepository;
+        this.settlementRepository = settlementRepository;
+        this.messageService = messageService;
+        this.taskExecutor = taskExecutor;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public SettlementBatchResponse startSettlement(SettlementRequest request) {
+        SettlementBatch batch = createBatch(request);
+        taskExecutor.execute(() -> run(batch));
+        return SettlementBatchResponse.from(batch);
+    }
+
+    @Override
+    public SettlementBatchResponse settle(SettlementRequest request) {
+        SettlementBatch batch = createBatch(request);
+        run(batch);
+        return getBatch(batch.getBatchId());
+    }
+
+    @Override
+    public SettlementBatchResponse getBatch(UUID batchId) {
+        return settlementBatchRepository.findById(batchId)
+                .map(SettlementBatchResponse::from)
+                .orElseThrow(() -> new SettlementBatchNotFoundException(
+                        messageService.getMessage("error.settlement.batch.not.found") + ": " + batchId
+                ));
+    }
+
+    private SettlementBatch createBatch(SettlementRequest request) {
+        LocalDateTime now = LocalDateTime.now();
+        SettlementBatch batch = SettlementBatch.builder()
+                .batchId(UUID.randomUUID())
+                .currency(request.getCurrency())
+                .cutoffAt(request.getCutoff() != null ? request.getCutoff() : now)
+                .status(SettlementBatchStatus.RUNNING)
+                .startedAt(now)
+                .build();
+        return settlementBatchRepository.save(batch);
+    }
+
+    private void run(SettlementBatch batch) {
+        UUID batchId = batch.getBatchId();
+        log.info("Settlement batch {} started: currency={}, cutoff={}", batchId, batch.getCurrency(), batch.getCutoffAt());
+
+        LocalDateTime lastCreatedAt = null;
+        UUID lastCommissionId = null;
+        long commissionCount = 0;
+        long totalAmount = 0;
+
+        try {
+            while (true) {
+                SettledChunk chunk = settleChunk(batch, lastCreatedAt, lastCommissionId);
+                if (chunk == null || chunk.getCommissionCount() == 0) {
+                    break;
+                }
+                lastCreatedAt = chunk.getLastCreatedAt();
+                lastCommissionId = chunk.getLastCommissionId();
+                commissionCount += chunk.getCommissionCount();
+                totalAmount += chunk.getTotalAmount();
+                log.debug("Settlement batch {}: {} commissions settled so far", batchId, commissionCount);
+            }
+
+            settlementRepository.completeBatch(batchId, SettlementBatchStatus.COMPLETED, null, LocalDateTime.now());
+            log.info("Settlement batch {} completed: {} commissions, total {}", batchId, commissionCount, totalAmount);
+        } catch (RuntimeException e) {
+            log.error("Settlement batch {} failed after {} commissions", batchId, commissionCount, e);
+            settlementRepository.completeBatch(batchId, SettlementBatchStatus.FAILED, e.getMessage(), LocalDateTime.now());
+        }
+    }
+
+    private SettledChunk settleChunk(SettlementBatch batch, LocalDateTime lastCreatedAt, UUID lastCommissionId) {
+        return chunkTransaction.execute(status -> {
+            SettledChunk chunk = settlementRepository.settleChunk(batch.getBatchId(), batch.getCurrency(),
+                    batch.getCutoffAt(), lastCreatedAt, lastCommissionId, chunkSize, batch.getStartedAt());
+            if (chunk.getCommissionCount() > 0) {
+                settlementRepository.addBatchTotals(batch.getBatchId(), chunk.getCommissionCount(), chunk.getTotalAmount());
+            }
+            return chunk;
+        });
+    }
+}
@@ -0,0 +1,65 @@
+package com.payment.commission.service.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Bounded in-memory set of transaction IDs whose commission was recently recorded.
+ *
+ * Kafka redeliveries and client retries usually arrive shortly after the original,
+ * so checking this set first lets them skip the database write entirely. The set is
+ * only a shortcut: the unique constraint on transaction_id remains the source of truth.
+ */
+@Component
+public class RecentTransactionIds {
+
+    private final Cache<UUID, Boolean> recorded;
+
+    public RecentTransactionIds(@Value("${commission.idempotency.recent-ids-max-size:100000}") long maxSize,
+                                @Value("${commission.idempotency.recent-ids-ttl:PT1H}") Duration ttl) {
+        this.recorded = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Check whether a commission was recently recorded for the transaction
+     */
+    public boolean contains(UUID transactionId) {
+        return recorded.getIfPresent(transactionId) != null;
+    }
+
+    /**
+     * Remember a recorded transaction once the current DB transaction commits,
+     * so a rolled back write is never taken for a duplicate
+     */
+    public void markRecorded(UUID transactionId) {
+        markRecorded(List.of(transactionId));
+    }
+
+    /**
+     * Remember recorded transactions once the current DB transaction commits
+     */
+    public void markRecorded(Collection<UUID> transactionIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            transactionIds.forEach(id -> recorded.put(id, Boolean.TRUE));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                transactionIds.forEach(id -> recorded.put(id, Boolean.TRUE));
+            }
+        });
+    }
+}
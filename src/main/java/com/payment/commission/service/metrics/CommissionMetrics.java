@@ -0,0 +1,178 @@
+package com.payment.commission.service.metrics;
+
+import com.payment.commission.domain.enums.OutboxEventType;
+import com.payment.commission.exception.NoMatchingRuleException;
+import com.payment.commission.exception.RuleNotFoundException;
+import com.payment.common.enums.Currency;
+import com.payment.common.enums.TransferType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Domain metrics for fee calculation and commission recording.
+ *
+ * Every meter is registered up front, one per tag combination, so recording on the
+ * hot path is an array or map lookup and never a registry lookup. Histogram SLO
+ * buckets are configured under management.metrics.distribution.slo.
+ *
+ * commission.calculate: fee calculation latency by currency, transfer type and outcome
+ * commission.rule.lookups: rule snapshot lookups by lookup kind and hit/miss
+ * commission.rule.errors: RuleNotFoundException / NoMatchingRuleException thrown
+ * commission.kafka.publish: Kafka publish latency by event type and outcome
+ * commission.db.write: commission write latency (insert, rollup and outbox) by operation
+ */
+@Component
+public class CommissionMetrics {
+
+    public enum Outcome { SUCCESS, RULE_NOT_FOUND, NO_MATCHING_RULE, INVALID_AMOUNT, ERROR }
+
+    public enum RuleLookup { ID, MATCH }
+
+    public enum DbWrite { RECORD, RECORD_BATCH }
+
+    private static final Outcome[] OUTCOMES = Outcome.values();
+
+    private final Timer[][][] calculateTimers;
+    private final Map<RuleLookup, Counter> lookupHits = new EnumMap<>(RuleLookup.class);
+    private final Map<RuleLookup, Counter> lookupMisses = new EnumMap<>(RuleLookup.class);
+    private final Counter ruleNotFoundErrors;
+    private final Counter noMatchingRuleErrors;
+    private final Map<OutboxEventType, Timer> publishSuccessTimers = new EnumMap<>(OutboxEventType.class);
+    private final Map<OutboxEventType, Timer> publishFailureTimers = new EnumMap<>(OutboxEventType.class);
+    private final Map<DbWrite, Timer> dbWriteTimers = new EnumMap<>(DbWrite.class);
+
+    public CommissionMetrics(MeterRegistry meterRegistry) {
+        Currency[] currencies = Currency.values();
+        TransferType[] transferTypes = TransferType.values();
+        this.calculateTimers = new Timer[currencies.length][transferTypes.length][OUTCOMES.length];
+        for (Currency currency : currencies) {
+            for (TransferType transferType : transferTypes) {
+                for (Outcome outcome : OUTCOMES) {
+                    calculateTimers[currency.ordinal()][transferType.ordinal()][outcome.ordinal()] =
+                            Timer.builder("commission.calculate")
+                                    .description("Fee calculation latency, including calculation cache hits")
+                                    .tag("currency", currency.name())
+                                    .tag("transfer_type", transferType.name())
+                                    .tag("outcome", tagValue(outcome))
+                                    .register(meterRegistry);
+                }
+            }
+        }
+
+        for (RuleLookup lookup : RuleLookup.values()) {
+            lookupHits.put(lookup, ruleLookupCounter(meterRegistry, lookup, "hit"));
+            lookupMisses.put(lookup, ruleLookupCounter(meterRegistry, lookup, "miss"));
+        }
+
+        this.ruleNotFoundErrors = ruleErrorCounter(meterRegistry, RuleNotFoundException.class);
+        this.noMatchingRuleErrors = ruleErrorCounter(meterRegistry, NoMatchingRuleException.class);
+
+        for (OutboxEventType eventType : OutboxEventType.values()) {
+            publishSuccessTimers.put(eventType, publishTimer(meterRegistry, eventType, "success"));
+            publishFailureTimers.put(eventType, publishTimer(meterRegistry, eventType, "failure"));
+        }
+
+        for (DbWrite operation : DbWrite.values()) {
+            dbWriteTimers.put(operation, Timer.builder("commission.db.write")
+                    .description("Time to write recorded commissions with their rollup and outbox rows")
+                    .tag("operation", tagValue(operation))
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Time a fee calculation, classifying its outcome by the exception it throws
+     */
+    public <T> T timeCalculation(Currency currency, TransferType transferType, Supplier<T> calculation) {
+        long start = System.nanoTime();
+        Outcome outcome = Outcome.ERROR;
+        try {
+            T result = calculation.get();
+            outcome = Outcome.SUCCESS;
+            return result;
+        } catch (RuleNotFoundException e) {
+            outcome = Outcome.RULE_NOT_FOUND;
+            throw e;
+        } catch (NoMatchingRuleException e) {
+            outcome = Outcome.NO_MATCHING_RULE;
+            throw e;
+        } catch (ArithmeticException e) {
+            outcome = Outcome.INVALID_AMOUNT;
+            throw e;
+        } finally {
+            // Requests failing validation before binding may lack either tag
+            if (currency != null && transferType != null) {
+                calculateTimers[currency.ordinal()][transferType.ordinal()][outcome.ordinal()]
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * Count a rule snapshot lookup
+     */
+    public void ruleLookup(RuleLookup lookup, boolean hit) {
+        (hit ? lookupHits : lookupMisses).get(lookup).increment();
+    }
+
+    /**
+     * Count a rule error about to be thrown
+     * @return the exception, for {@code throw commissionMetrics.ruleError(...)}
+     */
+    public <E extends RuntimeException> E ruleError(E exception) {
+        if (exception instanceof RuleNotFoundException) {
+            ruleNotFoundErrors.increment();
+        } else if (exception instanceof NoMatchingRuleException) {
+            noMatchingRuleErrors.increment();
+        }
+        return exception;
+    }
+
+    /**
+     * Record a Kafka publish attempt
+     */
+    public void recordPublish(OutboxEventType eventType, boolean success, long nanos) {
+        (success ? publishSuccessTimers : publishFailureTimers).get(eventType).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Record a commission write
+     */
+    public void recordDbWrite(DbWrite operation, long nanos) {
+        dbWriteTimers.get(operation).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static Counter ruleLookupCounter(MeterRegistry meterRegistry, RuleLookup lookup, String result) {
+        return Counter.builder("commission.rule.lookups")
+                .description("Rule lookups in the in-memory rule snapshot")
+                .tag("lookup", tagValue(lookup))
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static Counter ruleErrorCounter(MeterRegistry meterRegistry, Class<? extends RuntimeException> type) {
+        return Counter.builder("commission.rule.errors")
+                .description("Rule resolution errors thrown")
+                .tag("exception", type.getSimpleName())
+                .register(meterRegistry);
+    }
+
+    private static Timer publishTimer(MeterRegistry meterRegistry, OutboxEventType eventType, String outcome) {
+        return Timer.builder("commission.kafka.publish")
+                .description("Time to publish a commission event to Kafka")
+                .tag("event_type", eventType.name())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static String tagValue(Enum<?> value) {
+        return value.name().toLowerCase();
+    }
+}
@@ -0,0 +1,249 @@
+package com.payment.commission.service.outbox;
+
+import com.payment.commission.domain.entity.CommissionOutboxEvent;
+import com.payment.commission.repository.CommissionOutboxRepository;
+import com.payment.commission.service.CommissionEventPublisher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Relays commission events from the outbox table to Kafka.
+ *
+ * Each poll claims a batch of due events in a short transaction that leases them to
+ * this relay (their next attempt is moved past the lease), sends them with no
+ * transaction or connection held, then deletes the published ones and records the
+ * failures in a second short transaction. Sends are asynchronous: the whole batch is
+ * handed to the producer, which batches records per partition, with at most
+ * max-in-flight sends awaiting their acknowledgement at a time, and the outcome of
+ * each is collected from its delivery callback. Failed events stay in the outbox
+ * and are retried with exponential backoff; after max-attempts failures they are
+ * moved to the dead letter table. Only the oldest pending event of a transaction
+ * is ever picked, so events of one transaction are published in order. If the relay
+ * dies mid-batch, its events become due again when the lease ends.
+ */
+@Component
+@Slf4j
+public class CommissionOutboxRelay {
+
+    private final CommissionOutboxRepository commissionOutboxRepository;
+    private final CommissionEventPublisher commissionEventPublisher;
+    private final TransactionTemplate relayTransaction;
+    private final Duration lease;
+
+    private final int batchSize;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final int maxAttempts;
+    private final Duration sendTimeout;
+    private final Semaphore inFlight;
+
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Counter deadLetteredCounter;
+    private final Timer deliveryTimer;
+    private final AtomicLong pendingEvents = new AtomicLong();
+    private final AtomicLong oldestPendingAgeMillis = new AtomicLong();
+
+    public CommissionOutboxRelay(CommissionOutboxRepository commissionOutboxRepository,
+                                 CommissionEventPublisher commissionEventPublisher,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${commission.outbox.batch-size:1000}") int batchSize,
+                                 @Value("${commission.outbox.initial-backoff:PT1S}") Duration initialBackoff,
+                                 @Value("${commission.outbox.max-backoff:PT5M}") Duration maxBackoff,
+                                 @Value("${commission.outbox.max-attempts:20}") int maxAttempts,
+                                 @Value("${commission.outbox.max-in-flight:500}") int maxInFlight,
+                                 @Value("${commission.outbox.send-timeout:PT30S}") Duration sendTimeout,
+                                 @Value("${commission.outbox.lease:PT2M}") Duration lease) {
+        this.commissionOutboxRepository = commissionOutboxRepository;
+        this.commissionEventPublisher = commissionEventPublisher;
+        this.relayTransaction = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.maxAttempts = maxAttempts;
+        this.sendTimeout = sendTimeout;
+        // Sending a batch takes at most two send timeouts: waiting for slots, then for acknowledgements
+        if (lease.compareTo(sendTimeout.multipliedBy(2)) <= 0) {
+            throw new IllegalArgumentException("Outbox lease " + lease + " must exceed twice the send timeout " + sendTimeout);
+        }
+        this.lease = lease;
+        this.inFlight = new Semaphore(maxInFlight);
+
+        this.publishedCounter = Counter.builder("commission.outbox.published")
+                .description("Commission events published from the outbox")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("commission.outbox.failed")
+                .description("Failed attempts to publish commission events from the outbox")
+                .register(meterRegistry);
+        this.deadLetteredCounter = Counter.builder("commission.outbox.dead_lettered")
+                .description("Commission events moved to the dead letter table")
+                .register(meterRegistry);
+        this.deliveryTimer = Timer.builder("commission.outbox.delivery")
+                .description("Time from a commission event being written to the outbox until it is published")
+                .register(meterRegistry);
+        Gauge.builder("commission.outbox.pending", pendingEvents, AtomicLong::get)
+                .description("Commission events waiting in the outbox")
+                .register(meterRegistry);
+        Gauge.builder("commission.outbox.lag", oldestPendingAgeMillis, age -> age.get() / 1000.0)
+                .description("Age of the oldest commission event waiting in the outbox")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Drain the outbox until no full batch of due events is left
+     */
+    @Scheduled(fixedDelayString = "${commission.outbox.poll-interval:PT0.5S}")
+    public void relay() {
+        int relayed;
+        do {
+            relayed = relayBatch();
+        } while (relayed == batchSize);
+
+        refreshLag();
+    }
+
+    /**
+     * Publish one batch of due events
+     * @return the number of events picked from the outbox
+     */
+    int relayBatch() {
+        List<CommissionOutboxEvent> batch = claimBatch();
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<?>> sends = new ArrayList<>(batch.size());
+        for (CommissionOutboxEvent event : batch) {
+            sends.add(sendWithinWindow(event));
+        }
+        List<Throwable> errors = new ArrayList<>(batch.size());
+        long deadline = System.nanoTime() + sendTimeout.toNanos();
+        for (CompletableFuture<?> send : sends) {
+            errors.add(awaitSend(send, deadline));
+        }
+
+        relayTransaction.executeWithoutResult(status -> recordOutcomes(batch, errors));
+        return batch.size();
+    }
+
+    // Locks the next due events and leases them, releasing the locks on commit
+    private List<CommissionOutboxEvent> claimBatch() {
+        List<CommissionOutboxEvent> batch = relayTransaction.execute(status -> {
+            List<CommissionOutboxEvent> due = commissionOutboxRepository.lockNextBatch(LocalDateTime.now(), batchSize);
+            if (!due.isEmpty()) {
+                commissionOutboxRepository.lease(
+                        due.stream().map(CommissionOutboxEvent::getOutboxId).toList(), LocalDateTime.now().plus(lease));
+            }
+            return due;
+        });
+        return batch != null ? batch : List.of();
+    }
+
+    // Deletes the published events, reschedules the failed ones and dead-letters those out of attempts
+    private void recordOutcomes(List<CommissionOutboxEvent> batch, List<Throwable> errors) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> published = new ArrayList<>(batch.size());
+        Set<UUID> deadTransactions = new HashSet<>();
+        for (int i = 0; i < batch.size(); i++) {
+            CommissionOutboxEvent event = batch.get(i);
+            Throwable error = errors.get(i);
+            if (error == null) {
+                published.add(event.getOutboxId());
+                publishedCounter.increment();
+                deliveryTimer.record(Duration.between(event.getOccurredAt(), now));
+                continue;
+            }
+            LocalDateTime nextAttemptAt = now.plus(backoff(event.getAttempts()));
+            event.markFailed(error.getMessage(), nextAttemptAt);
+            commissionOutboxRepository.recordFailure(event.getOutboxId(), error.getMessage(), nextAttemptAt);
+            failedCounter.increment();
+            if (event.getAttempts() >= maxAttempts) {
+                deadTransactions.add(event.getTransactionId());
+                log.error("Giving up on {} event for commission {} after {} attempts, moving it to the dead letter table",
+                        event.getEventType(), event.getCommissionId(), event.getAttempts(), error);
+            } else {
+                log.error("Error publishing {} event for commission {} (attempt {}), retrying at {}",
+                        event.getEventType(), event.getCommissionId(), event.getAttempts(), nextAttemptAt, error);
+            }
+        }
+
+        if (!published.isEmpty()) {
+            commissionOutboxRepository.deleteAllByIdInBatch(published);
+        }
+        if (!deadTransactions.isEmpty()) {
+            deadLetteredCounter.increment(commissionOutboxRepository.moveToDeadLetter(deadTransactions));
+        }
+    }
+
+    // Waits for a free slot in the in-flight window; the slot is released by the delivery callback
+    private CompletableFuture<?> sendWithinWindow(CommissionOutboxEvent event) {
+        try {
+            if (!inFlight.tryAcquire(sendTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                return CompletableFuture.failedFuture(new TimeoutException("No free in-flight slot within " + sendTimeout));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<?> sent;
+        try {
+            sent = commissionEventPublisher.sendAsync(event);
+        } catch (RuntimeException e) {
+            inFlight.release();
+            return CompletableFuture.failedFuture(e);
+        }
+        return sent.whenComplete((result, error) -> inFlight.release());
+    }
+
+    /**
+     * @return null if the send was acknowledged, otherwise why it failed
+     */
+    private static Throwable awaitSend(CompletableFuture<?> send, long deadlineNanos) {
+        try {
+            send.get(Math.max(0L, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return null;
+        } catch (ExecutionException e) {
+            return e.getCause();
+        } catch (TimeoutException e) {
+            return e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return e;
+        }
+    }
+
+    private void refreshLag() {
+        pendingEvents.set(commissionOutboxRepository.count());
+        LocalDateTime oldest = commissionOutboxRepository.findOldestOccurredAt();
+        oldestPendingAgeMillis.set(oldest != null ? Duration.between(oldest, LocalDateTime.now()).toMillis() : 0L);
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+}
@@ -0,0 +1,94 @@
+package com.payment.commission.service.partition;
+
+import com.payment.commission.repository.CommissionPartitionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+/**
+ * Keeps the monthly partitions of commission_transactions rolling.
+ *
+ * On startup and then daily, creates the partitions for the current month and
+ * months-ahead months after it, so inserts never fall into the default partition,
+ * and archives partitions older than retention-months (0 keeps every month).
+ * A month is only archived once all its commissions are settled. Runs under an
+ * advisory lock so only one instance does the DDL at a time.
+ */
+@Component
+@Slf4j
+public class CommissionPartitionMaintenance {
+
+    private final CommissionPartitionRepository commissionPartitionRepository;
+    private final TransactionTemplate maintenanceTransaction;
+
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    public CommissionPartitionMaintenance(CommissionPartitionRepository commissionPartitionRepository,
+                                          PlatformTransactionManager transactionManager,
+                                          @Value("${commission.partitions.months-ahead:3}") int monthsAhead,
+                                          @Value("${commission.partitions.retention-months:0}") int retentionMonths) {
+        this.commissionPartitionRepository = commissionPartitionRepository;
+        this.maintenanceTransaction = new TransactionTemplate(transactionManager);
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${commission.partitions.maintenance-cron:0 15 1 * * *}", zone = "UTC")
+    public void maintain() {
+        try {
+            maintenanceTransaction.executeWithoutResult(status -> {
+                if (!commissionPartitionRepository.tryLockMaintenance()) {
+                    log.debug("Partition maintenance already running on another instance");
+                    return;
+                }
+                YearMonth currentMonth = YearMonth.now(ZoneOffset.UTC);
+                Map<YearMonth, String> partitions = commissionPartitionRepository.findPartitions();
+                createAhead(currentMonth, partitions);
+                if (retentionMonths > 0) {
+                    archiveExpired(currentMonth.minusMonths(retentionMonths), partitions);
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error("Commission partition maintenance failed", e);
+        }
+    }
+
+    private void createAhead(YearMonth currentMonth, Map<YearMonth, String> partitions) {
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = currentMonth.plusMonths(i);
+            if (!partitions.containsKey(month)) {
+                String partition = commissionPartitionRepository.createPartition(month);
+                log.info("Created commission partition {} for {}", partition, month);
+            }
+        }
+    }
+
+    private void archiveExpired(YearMonth oldestRetained, Map<YearMonth, String> partitions) {
+        partitions.forEach((month, partition) -> {
+            if (!month.isBefore(oldestRetained)) {
+                return;
+            }
+            if (commissionPartitionRepository.hasUnsettledCommissions(partition)) {
+                log.warn("Not archiving commission partition {}: it still has unsettled commissions", partition);
+                return;
+            }
+            commissionPartitionRepository.archivePartition(partition);
+            log.info("Archived commission partition {} for {}", partition, month);
+        });
+    }
+}
@@ -0,0 +1,153 @@
+package com.payment.commission.service.rule;
+
+import com.payment.commission.domain.entity.CommissionRule;
+import com.payment.commission.repository.CommissionRuleRepository;
+import com.payment.common.enums.Currency;
+import com.payment.common.enums.KYCLevel;
+import com.payment.common.enums.TransferType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds the in-memory snapshot of commission rules used by fee calculation.
+ *
+ * The snapshot is loaded at startup and rebuilt after every committed rule
+ * change on any instance (see {@link RuleChangeBroadcaster}), then swapped in
+ * with a single volatile write. Readers never block
+ * and never touch the database.
+ *
+ * The snapshot of the next epoch is built ahead of time and swapped in by a
+ * dedicated timer thread at the boundary instant, so scheduled tariff changes
+ * take effect on time without any date checks on the request path.
+ */
+@Component
+@Slf4j
+public class CommissionRuleRegistry implements SmartInitializingSingleton, DisposableBean {
+
+    private final CommissionRuleRepository commissionRuleRepository;
+    private final TransactionTemplate reloadTransaction;
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    // Own timer thread so epoch swaps never queue behind other scheduled work
+    private final ScheduledExecutorService epochTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "rule-epoch-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile RuleSnapshot snapshot = RuleSnapshot.EMPTY;
+    private ScheduledFuture<?> nextEpochSwap;
+
+    public CommissionRuleRegistry(CommissionRuleRepository commissionRuleRepository,
+                                  PlatformTransactionManager transactionManager) {
+        this.commissionRuleRepository = commissionRuleRepository;
+        this.reloadTransaction = new TransactionTemplate(transactionManager);
+        this.reloadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.reloadTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Get the current rule snapshot
+     */
+    public RuleSnapshot current() {
+        return snapshot;
+    }
+
+    /**
+     * Get a compiled rule by ID from the current snapshot, or null if unknown
+     */
+    public CompiledRule find(UUID ruleId) {
+        return snapshot.get(ruleId);
+    }
+
+    /**
+     * Find the highest priority rule effective in the current epoch and matching a transaction,
+     * or null if none matches
+     */
+    public CompiledRule match(long amount, Currency currency, TransferType transferType, KYCLevel kycLevel) {
+        return snapshot.match(amount, currency, transferType, kycLevel);
+    }
+
+    /**
+     * Rebuild the snapshot from the database and swap it in under the current version.
+     * Used when the cluster-wide rule-set version cannot be obtained: the version is not
+     * bumped past the cluster one, so the next cluster-wide change is still seen as newer.
+     */
+    public RuleSnapshot reload() {
+        return reload(snapshot.getVersion());
+    }
+
+    /**
+     * Rebuild the snapshot from the database and swap it in under a rule-set version.
+     * Reloads are serialized so a slower, older read never overwrites a newer one,
+     * and the version never goes backwards when notifications arrive out of order.
+     */
+    public RuleSnapshot reload(long version) {
+        reloadLock.lock();
+        try {
+            List<CommissionRule> rules = reloadTransaction.execute(status -> commissionRuleRepository.findAll());
+            RuleSnapshot next = RuleSnapshot.compile(rules, Math.max(version, snapshot.getVersion()));
+            install(next);
+            log.info("Commission rule snapshot v{} loaded with {} rules", next.getVersion(), next.size());
+            return next;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    // Must be called with reloadLock held
+    private void install(RuleSnapshot next) {
+        snapshot = next;
+        if (nextEpochSwap != null) {
+            nextEpochSwap.cancel(false);
+            nextEpochSwap = null;
+        }
+        RuleSnapshot following = next.nextEpoch();
+        if (following == null) {
+            return;
+        }
+        long delayMillis = Math.max(0L, Duration.between(LocalDateTime.now(), following.getEpochStart()).toMillis());
+        nextEpochSwap = epochTimer.schedule(() -> swapEpoch(next, following), delayMillis, TimeUnit.MILLISECONDS);
+        log.debug("Rule epoch of snapshot v{} ends at {}", next.getVersion(), following.getEpochStart());
+    }
+
+    private void swapEpoch(RuleSnapshot expected, RuleSnapshot following) {
+        reloadLock.lock();
+        try {
+            // A reload since scheduling has already installed a newer snapshot
+            if (snapshot != expected) {
+                return;
+            }
+            install(following);
+            log.info("Commission rule snapshot v{} switched to epoch starting at {}",
+                    following.getVersion(), following.getEpochStart());
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        // Aligned with the cluster-wide rule-set version by RuleChangeBroadcaster
+        reload(0L);
+    }
+
+    @Override
+    public void destroy() {
+        epochTimer.shutdownNow();
+    }
+}
@@ -0,0 +1,127 @@
+package com.payment.commission.service.rule;
+
+import com.payment.commission.domain.entity.CommissionRule;
+import com.payment.commission.domain.model.FeeSchedule;
+import com.payment.commission.dto.response.RuleCalculationDetails;
+import com.payment.common.enums.Currency;
+import com.payment.common.enums.KYCLevel;
+import com.payment.common.enums.TransferType;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Immutable, detached copy of a commission rule compiled for the calculation hot path.
+ * Nullable limits are unboxed into primitives with presence flags so that fee
+ * calculation does not have to touch the JPA entity or unbox on every call.
+ */
+@Getter
+public final class CompiledRule {
+
+    /** Bulk inputs from this size are split across the common fork/join pool */
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    private final UUID ruleId;
+    private final Currency currency;
+    private final TransferType transferType;
+    private final KYCLevel kycLevel;
+    private final BigDecimal percentage;
+    private final FeeSchedule feeSchedule;
+    private final long fixedAmount;
+    private final boolean hasMinAmount;
+    private final long minAmountValue;
+    private final boolean hasMaxAmount;
+    private final long maxAmountValue;
+    private final boolean hasMinTransaction;
+    private final long minTransactionValue;
+    private final boolean hasMaxTransaction;
+    private final long maxTransactionValue;
+    private final boolean active;
+    private final int priority;
+    private final LocalDateTime effectiveFrom;
+    private final LocalDateTime effectiveTo;
+    private final String description;
+    private final RuleCalculationDetails calculationDetails;
+
+    private CompiledRule(CommissionRule rule) {
+        this.ruleId = rule.getRuleId();
+        this.currency = rule.getCurrency();
+        this.transferType = rule.getTransferType();
+        this.kycLevel = rule.getKycLevel();
+        this.percentage = rule.getPercentage();
+        this.feeSchedule = rule.toFeeSchedule();
+        this.fixedAmount = rule.getFixedAmount() != null ? rule.getFixedAmount() : 0L;
+        this.hasMinAmount = rule.getMinAmount() != null;
+        this.minAmountValue = hasMinAmount ? rule.getMinAmount() : 0L;
+        this.hasMaxAmount = rule.getMaxAmount() != null;
+        this.maxAmountValue = hasMaxAmount ? rule.getMaxAmount() : 0L;
+        this.hasMinTransaction = rule.getMinTransaction() != null;
+        this.minTransactionValue = hasMinTransaction ? rule.getMinTransaction() : 0L;
+        this.hasMaxTransaction = rule.getMaxTransaction() != null;
+        this.maxTransactionValue = hasMaxTransaction ? rule.getMaxTransaction() : 0L;
+        this.active = Boolean.TRUE.equals(rule.getIsActive());
+        this.priority = rule.getPriority() != null ? rule.getPriority() : 0;
+        this.effectiveFrom = rule.getEffectiveFrom();
+        this.effectiveTo = rule.getEffectiveTo();
+        this.description = rule.getDescription();
+        this.calculationDetails = new RuleCalculationDetails(ruleId, transferType, percentage, fixedAmount,
+                getMinAmount(), getMaxAmount(), priority, kycLevel, description);
+    }
+
+    /**
+     * Compile a rule entity into its immutable hot-path form
+     */
+    public static CompiledRule of(CommissionRule rule) {
+        return new CompiledRule(rule);
+    }
+
+    /**
+     * Check if the rule is active and effective at the given instant
+     */
+    public boolean isEffectiveAt(LocalDateTime now) {
+        return active &&
+               (effectiveFrom == null || !now.isBefore(effectiveFrom)) &&
+               (effectiveTo == null || now.isBefore(effectiveTo));
+    }
+
+    /**
+     * Calculate fee for the given amount using the precompiled fee schedule
+     */
+    public long calculateFee(long amount) {
+        return feeSchedule.calculate(amount);
+    }
+
+    /**
+     * Calculate the fees of many amounts, on the calling thread or across the common
+     * fork/join pool for large inputs. Amount limits are not checked.
+     * @return the fee of each amount at the same index
+     */
+    public long[] calculateFees(long[] amounts) {
+        long[] fees = new long[amounts.length];
+        if (amounts.length >= PARALLEL_THRESHOLD) {
+            feeSchedule.calculateParallel(amounts, fees, ForkJoinPool.commonPool());
+        } else {
+            feeSchedule.calculate(amounts, fees);
+        }
+        return fees;
+    }
+
+    public Long getMinAmount() {
+        return hasMinAmount ? minAmountValue : null;
+    }
+
+    public Long getMaxAmount() {
+        return hasMaxAmount ? maxAmountValue : null;
+    }
+
+    public Long getMinTransaction() {
+        return hasMinTransaction ? minTransactionValue : null;
+    }
+
+    public Long getMaxTransaction() {
+        return hasMaxTransaction ? maxTransactionValue : null;
+    }
+}
@@ -0,0 +1,145 @@
+package com.payment.commission.service.rule;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.payment.commission.cache.TwoLevelCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Propagates rule changes to every service instance.
+ *
+ * After a rule change commits, the rule-set version is incremented in Redis and
+ * a {@link RuleChangeNotification} is published on a pub/sub channel. Every other
+ * instance evicts the rule from its local cache tier and rebuilds its rule
+ * snapshot under that version. Pub/sub does not redeliver, so instances also
+ * poll the version periodically and reload when they are behind.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RuleChangeBroadcaster implements MessageListener {
+
+    public static final String CHANNEL = "commission:rules:changed";
+    static final String VERSION_KEY = "commission:rules:version";
+
+    // Caches holding entries derived from a rule, scoped by rule ID
+    private static final List<String> RULE_CACHES = List.of("commission-rules", "commission-calculation");
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final CommissionRuleRegistry commissionRuleRegistry;
+    private final StringRedisTemplate redisTemplate;
+    private final CacheManager cacheManager;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Rebuild the local snapshot and notify the other instances once a rule change has been committed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRuleSetChanged(RuleSetChangedEvent event) {
+        Long version;
+        try {
+            version = redisTemplate.opsForValue().increment(VERSION_KEY);
+        } catch (RuntimeException e) {
+            // Other instances only pick this change up with the next versioned one
+            log.warn("Failed to increment rule-set version, reloading rule {} locally only: {}",
+                    event.getRuleId(), e.getMessage());
+            commissionRuleRegistry.reload();
+            return;
+        }
+
+        commissionRuleRegistry.reload(version);
+        try {
+            String payload = objectMapper.writeValueAsString(
+                    new RuleChangeNotification(version, event.getRuleId(), instanceId));
+            redisTemplate.convertAndSend(CHANNEL, payload);
+            log.debug("Broadcast change of rule {} as rule-set version {}", event.getRuleId(), version);
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Failed to broadcast change of rule {}: {}", event.getRuleId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Apply a rule change made on another instance
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        RuleChangeNotification notification;
+        try {
+            notification = objectMapper.readValue(
+                    new String(message.getBody(), StandardCharsets.UTF_8), RuleChangeNotification.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring malformed rule change notification: {}", e.getMessage());
+            return;
+        }
+        if (instanceId.equals(notification.getOriginInstanceId())) {
+            return;
+        }
+
+        log.debug("Rule {} changed on another instance, rule-set version {}",
+                notification.getRuleId(), notification.getVersion());
+        if (notification.getRuleId() != null) {
+            evictLocally(notification.getRuleId());
+        }
+        commissionRuleRegistry.reload(notification.getVersion());
+    }
+
+    /**
+     * Reload the rule snapshot when a notification was missed or the instance just started
+     */
+    @Scheduled(fixedDelayString = "${commission.rules.version-check-interval:PT30S}")
+    public void checkVersion() {
+        String value;
+        try {
+            value = redisTemplate.opsForValue().get(VERSION_KEY);
+        } catch (RuntimeException e) {
+            log.debug("Failed to read rule-set version: {}", e.getMessage());
+            return;
+        }
+        long clusterVersion = value != null ? Long.parseLong(value) : 0L;
+        if (clusterVersion > commissionRuleRegistry.current().getVersion()) {
+            log.info("Rule snapshot v{} is behind rule-set version {}, reloading",
+                    commissionRuleRegistry.current().getVersion(), clusterVersion);
+            // The changed rules are unknown, so drop every locally cached rule and fee
+            RULE_CACHES.forEach(name -> {
+                TwoLevelCache cache = twoLevelCache(name);
+                if (cache != null) {
+                    cache.getLocalCache().invalidateAll();
+                }
+            });
+            commissionRuleRegistry.reload(clusterVersion);
+        }
+    }
+
+    private void evictLocally(UUID ruleId) {
+        for (String name : RULE_CACHES) {
+            TwoLevelCache cache = twoLevelCache(name);
+            if (cache != null) {
+                cache.evictLocal(ruleId);
+            }
+        }
+    }
+
+    // The cache manager is transaction aware, so its caches come wrapped in a decorator
+    private TwoLevelCache twoLevelCache(String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache instanceof TransactionAwareCacheDecorator decorator) {
+            cache = decorator.getTargetCache();
+        }
+        return cache instanceof TwoLevelCache twoLevelCache ? twoLevelCache : null;
+    }
+}
@@ -0,0 +1,22 @@
+package com.payment.commission.service.rule;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Rule change broadcast to every service instance over Redis pub/sub
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RuleChangeNotification {
+
+    private long version;
+
+    private UUID ruleId;
+
+    private String originInstanceId; // Instance that made the change; it ignores its own notification
+}
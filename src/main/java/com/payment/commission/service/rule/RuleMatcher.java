@@ -0,0 +1,168 @@
+package com.payment.commission.service.rule;
+
+import com.payment.common.enums.Currency;
+import com.payment.common.enums.KYCLevel;
+import com.payment.common.enums.TransferType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Precomputed "best matching rule" index.
+ *
+ * For every (currency, transfer type, KYC level) the [minTransaction, maxTransaction]
+ * intervals of the candidate rules are cut into elementary segments, and each segment
+ * stores the highest priority rule covering it. Finding the rule for an amount is a
+ * binary search over the segment starts, with no allocation and no date math.
+ *
+ * Matching follows {@code CommissionRule.matches}: a rule without KYC level, or with
+ * {@link KYCLevel#ANY}, applies to every KYC level (including none), and equal
+ * priorities are broken by the most recent effectiveFrom, then by rule ID.
+ */
+final class RuleMatcher {
+
+    static final RuleMatcher EMPTY = new RuleMatcher(List.of());
+
+    private static final Comparator<CompiledRule> BEST_FIRST = Comparator
+            .comparingInt(CompiledRule::getPriority).reversed()
+            .thenComparing(CompiledRule::getEffectiveFrom, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(CompiledRule::getRuleId);
+
+    private static final int TRANSFER_TYPES = TransferType.values().length;
+    // One extra slot for requests without KYC level
+    private static final int KYC_SLOTS = KYCLevel.values().length + 1;
+
+    private final IntervalIndex[] indexes;
+
+    RuleMatcher(List<CompiledRule> rules) {
+        List<List<CompiledRule>> candidates = new ArrayList<>();
+        int slots = Currency.values().length * TRANSFER_TYPES * KYC_SLOTS;
+        for (int i = 0; i < slots; i++) {
+            candidates.add(new ArrayList<>());
+        }
+
+        for (CompiledRule rule : rules) {
+            if (rule.getCurrency() == null || rule.getTransferType() == null) {
+                continue;
+            }
+            KYCLevel ruleKyc = rule.getKycLevel();
+            if (ruleKyc == null || ruleKyc == KYCLevel.ANY) {
+                for (int kyc = 0; kyc < KYC_SLOTS; kyc++) {
+                    candidates.get(slot(rule.getCurrency(), rule.getTransferType(), kyc)).add(rule);
+                }
+            } else {
+                candidates.get(slot(rule.getCurrency(), rule.getTransferType(), ruleKyc.ordinal())).add(rule);
+            }
+        }
+
+        this.indexes = new IntervalIndex[slots];
+        for (int i = 0; i < slots; i++) {
+            List<CompiledRule> slotRules = candidates.get(i);
+            indexes[i] = slotRules.isEmpty() ? null : IntervalIndex.build(slotRules);
+        }
+    }
+
+    /**
+     * Find the highest priority rule matching a transaction, or null if none matches
+     */
+    CompiledRule match(long amount, Currency currency, TransferType transferType, KYCLevel kycLevel) {
+        if (currency == null || transferType == null) {
+            return null;
+        }
+        int kyc = kycLevel != null ? kycLevel.ordinal() : KYC_SLOTS - 1;
+        IntervalIndex index = indexes[slot(currency, transferType, kyc)];
+        return index != null ? index.find(amount) : null;
+    }
+
+    private static int slot(Currency currency, TransferType transferType, int kyc) {
+        return (currency.ordinal() * TRANSFER_TYPES + transferType.ordinal()) * KYC_SLOTS + kyc;
+    }
+
+    /**
+     * Elementary segments over the amount axis; segment i covers
+     * [starts[i], starts[i + 1] - 1] and the last one runs to Long.MAX_VALUE
+     */
+    private static final class IntervalIndex {
+
+        private final long[] starts;
+        private final CompiledRule[] best;
+
+        private IntervalIndex(long[] starts, CompiledRule[] best) {
+            this.starts = starts;
+            this.best = best;
+        }
+
+        static IntervalIndex build(List<CompiledRule> rules) {
+            long[] points = new long[rules.size() * 2 + 1];
+            int count = 0;
+            points[count++] = Long.MIN_VALUE;
+            for (CompiledRule rule : rules) {
+                points[count++] = lowerBound(rule);
+                long upper = upperBound(rule);
+                if (upper != Long.MAX_VALUE) {
+                    points[count++] = upper + 1;
+                }
+            }
+            Arrays.sort(points, 0, count);
+            int segments = 0;
+            for (int i = 0; i < count; i++) {
+                if (segments == 0 || points[i] != points[segments - 1]) {
+                    points[segments++] = points[i];
+                }
+            }
+            long[] starts = Arrays.copyOf(points, segments);
+            CompiledRule[] best = new CompiledRule[segments];
+
+            // Paint segments best rule first; nextUnpainted skips segments already taken
+            // by a better rule, so every segment is written exactly once
+            int[] nextUnpainted = new int[segments + 1];
+            for (int i = 0; i <= segments; i++) {
+                nextUnpainted[i] = i;
+            }
+            List<CompiledRule> ordered = new ArrayList<>(rules);
+            ordered.sort(BEST_FIRST);
+            for (CompiledRule rule : ordered) {
+                long upper = upperBound(rule);
+                int first = Arrays.binarySearch(starts, lowerBound(rule));
+                int last = upper == Long.MAX_VALUE ? segments - 1 : Arrays.binarySearch(starts, upper + 1) - 1;
+                for (int i = findUnpainted(nextUnpainted, first); i <= last; i = findUnpainted(nextUnpainted, i)) {
+                    best[i] = rule;
+                    nextUnpainted[i] = i + 1;
+                }
+            }
+            return new IntervalIndex(starts, best);
+        }
+
+        CompiledRule find(long amount) {
+            int index = Arrays.binarySearch(starts, amount);
+            if (index < 0) {
+                index = -index - 2;
+            }
+            return index >= 0 ? best[index] : null;
+        }
+
+        private static int findUnpainted(int[] nextUnpainted, int i) {
+            int root = i;
+            while (nextUnpainted[root] != root) {
+                root = nextUnpainted[root];
+            }
+            // Path compression
+            while (nextUnpainted[i] != root) {
+                int next = nextUnpainted[i];
+                nextUnpainted[i] = root;
+                i = next;
+            }
+            return root;
+        }
+
+        private static long lowerBound(CompiledRule rule) {
+            return rule.isHasMinTransaction() ? rule.getMinTransactionValue() : Long.MIN_VALUE;
+        }
+
+        private static long upperBound(CompiledRule rule) {
+            return rule.isHasMaxTransaction() ? rule.getMaxTransactionValue() : Long.MAX_VALUE;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.payment.commission.service.rule;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Application event raised when a commission rule is created or modified.
+ * The rule snapshot is rebuilt once the publishing transaction commits.
+ */
+@Getter
+@RequiredArgsConstructor
+public class RuleSetChangedEvent {
+
+    private final UUID ruleId;
+}
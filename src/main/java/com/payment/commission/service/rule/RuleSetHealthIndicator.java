@@ -0,0 +1,35 @@
+package com.payment.commission.service.rule;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the rule-set version loaded by this instance under {@code ruleSet} in the health endpoint,
+ * so rule changes can be checked to have reached every instance
+ */
+@Component
+@RequiredArgsConstructor
+public class RuleSetHealthIndicator implements HealthIndicator {
+
+    private final CommissionRuleRegistry commissionRuleRegistry;
+
+    @Override
+    public Health health() {
+        RuleSnapshot snapshot = commissionRuleRegistry.current();
+        Health.Builder builder = snapshot.getLoadedAt() != null ? Health.up() : Health.down();
+        builder.withDetail("version", snapshot.getVersion())
+                .withDetail("rules", snapshot.size());
+        if (snapshot.getLoadedAt() != null) {
+            builder.withDetail("loadedAt", snapshot.getLoadedAt().toString());
+        }
+        if (snapshot.getEpochStart() != null) {
+            builder.withDetail("epochStart", snapshot.getEpochStart().toString());
+        }
+        if (snapshot.getEpochEnd() != null) {
+            builder.withDetail("epochEnd", snapshot.getEpochEnd().toString());
+        }
+        return builder.build();
+    }
+}
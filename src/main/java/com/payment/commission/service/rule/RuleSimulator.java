@@ -0,0 +1,177 @@
+package com.payment.commission.service.rule;
+
+import com.payment.commission.domain.model.FeeSchedule;
+import com.payment.commission.dto.request.CreateRuleRequest;
+import com.payment.commission.dto.response.RuleSimulationDay;
+import com.payment.commission.dto.response.RuleSimulationResponse;
+import com.payment.commission.repository.CommissionExportRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Re-prices historical commissions under a candidate rule.
+ *
+ * The date range is split into one chunk per day (one monthly partition scan each).
+ * Up to parallelism workers take days in turn and stream each day's requested amounts
+ * from a cursor in read-only transactions. Amounts are priced in blocks with the bulk
+ * {@link FeeSchedule} API. Only one aggregate per day is kept, so heap use does not
+ * grow with the number of commissions.
+ *
+ * The current fee of a commission is its requested amount priced by the current terms
+ * of the rule that recorded it, or the recorded fee if that rule no longer exists.
+ * The candidate's KYC level is not applied, since calculation bases do not record it.
+ */
+@Component
+@Slf4j
+public class RuleSimulator {
+
+    private static final int BLOCK_SIZE = 8192;
+
+    private final CommissionExportRepository commissionExportRepository;
+    private final CommissionRuleRegistry commissionRuleRegistry;
+    private final TaskExecutor taskExecutor;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int parallelism;
+    private final int maxDays;
+
+    public RuleSimulator(CommissionExportRepository commissionExportRepository,
+                         CommissionRuleRegistry commissionRuleRegistry,
+                         @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${commission.simulation.parallelism:4}") int parallelism,
+                         @Value("${commission.simulation.max-days:366}") int maxDays) {
+        this.commissionExportRepository = commissionExportRepository;
+        this.commissionRuleRegistry = commissionRuleRegistry;
+        this.taskExecutor = taskExecutor;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.parallelism = parallelism;
+        this.maxDays = maxDays;
+    }
+
+    /**
+     * Whether the dates (inclusive) span more days than a simulation may cover
+     */
+    public boolean exceedsMaxDays(LocalDate startDate, LocalDate endDate) {
+        return ChronoUnit.DAYS.between(startDate, endDate) + 1 > maxDays;
+    }
+
+    /**
+     * Simulate a validated candidate rule over the commissions created between the dates (inclusive)
+     */
+    public RuleSimulationResponse simulate(CreateRuleRequest candidate, LocalDate startDate, LocalDate endDate) {
+        // Same defaults as a created rule
+        FeeSchedule candidateSchedule = FeeSchedule.of(candidate.getPercentage(),
+                candidate.getFixedAmount() != null ? candidate.getFixedAmount() : 0L,
+                candidate.getMinAmount() != null ? candidate.getMinAmount() : 0L,
+                candidate.getMaxAmount());
+
+        int dayCount = (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        RuleSimulationDay[] days = new RuleSimulationDay[dayCount];
+        AtomicInteger nextDay = new AtomicInteger();
+        long start = System.nanoTime();
+
+        List<CompletableFuture<Void>> workers = new ArrayList<>(parallelism);
+        for (int i = 0; i < Math.min(parallelism, dayCount); i++) {
+            workers.add(CompletableFuture.runAsync(() -> {
+                try {
+                    for (int day = nextDay.getAndIncrement(); day < dayCount; day = nextDay.getAndIncrement()) {
+                        days[day] = simulateDay(candidate, candidateSchedule, startDate.plusDays(day));
+                    }
+                } catch (RuntimeException e) {
+                    // Stop the other workers at their next day
+                    nextDay.set(dayCount);
+                    throw e;
+                }
+            }, taskExecutor));
+        }
+        try {
+            CompletableFuture.allOf(workers.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+
+        RuleSimulationResponse response = RuleSimulationResponse.builder()
+                .startDate(startDate)
+                .endDate(endDate)
+                .currency(candidate.getCurrency())
+                .transferType(candidate.getTransferType())
+                .days(List.of(days))
+                .build();
+        for (RuleSimulationDay day : days) {
+            response.setTransactionCount(response.getTransactionCount() + day.getTransactionCount());
+            response.setRequestedVolume(response.getRequestedVolume() + day.getRequestedVolume());
+            response.setRecordedFees(response.getRecordedFees() + day.getRecordedFees());
+            response.setCurrentFees(response.getCurrentFees() + day.getCurrentFees());
+            response.setCandidateFees(response.getCandidateFees() + day.getCandidateFees());
+        }
+        response.setFeeDelta(response.getCandidateFees() - response.getCurrentFees());
+
+        log.info("Simulated {} {} rule over {} commissions from {} to {} in {} ms: fee delta {}",
+                candidate.getCurrency(), candidate.getTransferType(), response.getTransactionCount(),
+                startDate, endDate, (System.nanoTime() - start) / 1_000_000, response.getFeeDelta());
+        return response;
+    }
+
+    private RuleSimulationDay simulateDay(CreateRuleRequest candidate, FeeSchedule candidateSchedule, LocalDate date) {
+        RuleSimulationDay day = RuleSimulationDay.builder()
+                .date(date)
+                .currency(candidate.getCurrency())
+                .build();
+        long[] amounts = new long[BLOCK_SIZE];
+        long[] candidateFees = new long[BLOCK_SIZE];
+        int[] pending = new int[1];
+
+        readOnlyTransaction.executeWithoutResult(status ->
+                commissionExportRepository.streamRequestedAmounts(date, candidate.getCurrency(),
+                        candidate.getTransferType(), candidate.getMinTransaction(), candidate.getMaxTransaction(),
+                        rs -> {
+                            UUID ruleId = rs.getObject(1, UUID.class);
+                            long recordedFee = rs.getLong(2);
+                            long amount = rs.getLong(3);
+
+                            CompiledRule currentRule = ruleId != null ? commissionRuleRegistry.find(ruleId) : null;
+                            day.setTransactionCount(day.getTransactionCount() + 1);
+                            day.setRequestedVolume(day.getRequestedVolume() + amount);
+                            day.setRecordedFees(day.getRecordedFees() + recordedFee);
+                            day.setCurrentFees(day.getCurrentFees()
+                                    + (currentRule != null ? currentRule.calculateFee(amount) : recordedFee));
+
+                            amounts[pending[0]++] = amount;
+                            if (pending[0] == BLOCK_SIZE) {
+                                addCandidateFees(day, candidateSchedule, amounts, candidateFees, BLOCK_SIZE);
+                                pending[0] = 0;
+                            }
+                        }));
+
+        addCandidateFees(day, candidateSchedule, amounts, candidateFees, pending[0]);
+        return day;
+    }
+
+    private static void addCandidateFees(RuleSimulationDay day, FeeSchedule candidateSchedule,
+                                         long[] amounts, long[] fees, int count) {
+        candidateSchedule.calculate(amounts, 0, count, fees);
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            total += fees[i];
+        }
+        day.setCandidateFees(day.getCandidateFees() + total);
+    }
+}
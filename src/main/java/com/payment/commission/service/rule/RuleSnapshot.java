@@ -0,0 +1,194 @@
+package com.payment.commission.service.rule;
+
+import com.payment.commission.domain.entity.CommissionRule;
+import com.payment.common.enums.Currency;
+import com.payment.common.enums.KYCLevel;
+import com.payment.common.enums.TransferType;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Immutable snapshot of all commission rules, keyed by rule ID, for one epoch.
+ *
+ * Lookups go through an open-addressing table keyed on the two halves of the
+ * UUID held in {@code long[]} arrays, so a lookup is a few array reads and
+ * never allocates or hashes {@link UUID} objects.
+ *
+ * An epoch is the interval between two consecutive effectiveFrom/effectiveTo
+ * boundaries of the active rules. No rule starts or stops being effective
+ * inside an epoch, so effectiveness and rule auto-selection ({@link RuleMatcher})
+ * are resolved once when the epoch is built instead of on every request.
+ */
+@Slf4j
+public final class RuleSnapshot {
+
+    public static final RuleSnapshot EMPTY = new RuleSnapshot(List.of(), 0L, null, LocalDateTime.MIN);
+
+    @Getter
+    private final long version;
+
+    @Getter
+    private final LocalDateTime loadedAt;
+
+    @Getter
+    private final List<CompiledRule> rules;
+
+    /**
+     * Boundary this epoch starts at, or null if it runs from the beginning of time
+     */
+    @Getter
+    private final LocalDateTime epochStart;
+
+    /**
+     * Boundary at which the next epoch takes over, or null if this is the last epoch
+     */
+    @Getter
+    private final LocalDateTime epochEnd;
+
+    private final long[] keyHigh;
+    private final long[] keyLow;
+    private final CompiledRule[] slots;
+    private final boolean[] effective;
+    private final int mask;
+
+    private final RuleMatcher matcher;
+
+    private RuleSnapshot(List<CompiledRule> rules, long version, LocalDateTime loadedAt, LocalDateTime at) {
+        this.version = version;
+        this.loadedAt = loadedAt;
+        this.rules = Collections.unmodifiableList(rules);
+
+        LocalDateTime start = null;
+        LocalDateTime end = null;
+        List<CompiledRule> effectiveRules = new ArrayList<>(rules.size());
+        for (CompiledRule rule : rules) {
+            if (!rule.isActive()) {
+                continue;
+            }
+            if (rule.isEffectiveAt(at)) {
+                effectiveRules.add(rule);
+            }
+            for (LocalDateTime boundary : new LocalDateTime[] {rule.getEffectiveFrom(), rule.getEffectiveTo()}) {
+                if (boundary == null) {
+                    continue;
+                }
+                if (boundary.isAfter(at)) {
+                    end = end == null || boundary.isBefore(end) ? boundary : end;
+                } else {
+                    start = start == null || boundary.isAfter(start) ? boundary : start;
+                }
+            }
+        }
+        this.epochStart = start;
+        this.epochEnd = end;
+        this.matcher = effectiveRules.isEmpty() ? RuleMatcher.EMPTY : new RuleMatcher(effectiveRules);
+
+        int capacity = tableSizeFor(rules.size());
+        this.keyHigh = new long[capacity];
+        this.keyLow = new long[capacity];
+        this.slots = new CompiledRule[capacity];
+        this.effective = new boolean[capacity];
+        this.mask = capacity - 1;
+
+        for (CompiledRule rule : rules) {
+            long high = rule.getRuleId().getMostSignificantBits();
+            long low = rule.getRuleId().getLeastSignificantBits();
+            int index = indexFor(high, low);
+            while (slots[index] != null) {
+                index = (index + 1) & mask;
+            }
+            keyHigh[index] = high;
+            keyLow[index] = low;
+            slots[index] = rule;
+            effective[index] = rule.isEffectiveAt(at);
+        }
+    }
+
+    /**
+     * Compile rule entities into a new snapshot for the epoch containing the current instant
+     */
+    public static RuleSnapshot compile(Collection<CommissionRule> entities, long version) {
+        List<CompiledRule> compiled = new ArrayList<>(entities.size());
+        for (CommissionRule entity : entities) {
+            try {
+                compiled.add(CompiledRule.of(entity));
+            } catch (IllegalArgumentException e) {
+                // One malformed rule must not take every other rule out of service
+                log.error("Skipping commission rule {} that cannot be compiled: {}", entity.getRuleId(), e.getMessage());
+            }
+        }
+        LocalDateTime now = LocalDateTime.now();
+        return new RuleSnapshot(compiled, version, now, now);
+    }
+
+    /**
+     * Build the snapshot of the same rules for the epoch starting at epochEnd, or null if there is none
+     */
+    public RuleSnapshot nextEpoch() {
+        return epochEnd != null ? new RuleSnapshot(rules, version, loadedAt, epochEnd) : null;
+    }
+
+    /**
+     * Find the highest priority rule effective in this epoch and matching a transaction, or null if none matches
+     */
+    public CompiledRule match(long amount, Currency currency, TransferType transferType, KYCLevel kycLevel) {
+        return matcher.match(amount, currency, transferType, kycLevel);
+    }
+
+    /**
+     * Get a compiled rule by ID, or null if the snapshot has no such rule
+     */
+    public CompiledRule get(UUID ruleId) {
+        int index = indexOf(ruleId);
+        return index >= 0 ? slots[index] : null;
+    }
+
+    /**
+     * Check if a rule is active and effective in this epoch
+     */
+    public boolean isEffective(UUID ruleId) {
+        int index = indexOf(ruleId);
+        return index >= 0 && effective[index];
+    }
+
+    public int size() {
+        return rules.size();
+    }
+
+    private int indexOf(UUID ruleId) {
+        if (ruleId == null) {
+            return -1;
+        }
+        long high = ruleId.getMostSignificantBits();
+        long low = ruleId.getLeastSignificantBits();
+        int index = indexFor(high, low);
+        while (slots[index] != null) {
+            if (keyHigh[index] == high && keyLow[index] == low) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int indexFor(long high, long low) {
+        long hash = (high ^ low) * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    // Keep the load factor at or below 0.5 so probe chains stay short
+    private static int tableSizeFor(int size) {
+        int capacity = 2;
+        while (capacity < size * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
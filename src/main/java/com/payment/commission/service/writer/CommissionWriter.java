@@ -0,0 +1,244 @@
+package com.payment.commission.service.writer;
+
+import com.payment.commission.dto.event.RejectedTransactionEvent;
+import com.payment.commission.dto.event.TransactionCompletedEvent;
+import com.payment.commission.service.CommissionService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buffered, high-throughput commission writer
+ *
+ * Callers hand over completed transactions and block until they are committed.
+ * Submissions from all callers are coalesced and flushed by dedicated threads in
+ * one DB transaction once flush-size transactions are pending or flush-interval
+ * has passed since the oldest one arrived, so each flush is a single large JDBC
+ * batch or COPY instead of many small ones.
+ *
+ * When a merged flush fails, each caller's submission is retried on its own, so
+ * only the callers whose transactions still fail are rejected.
+ *
+ * At most max-pending transactions are buffered. Callers wait for room up to
+ * submit-timeout and are then rejected, which pushes back on the Kafka consumer.
+ */
+@Component
+@Slf4j
+public class CommissionWriter implements DisposableBean {
+
+    private final CommissionService commissionService;
+    private final int flushSize;
+    private final long flushIntervalNanos;
+    private final int maxPending;
+    private final Duration submitTimeout;
+
+    private final BlockingQueue<Submission> queue = new LinkedBlockingQueue<>();
+    private final Semaphore capacity;
+    private final List<Thread> flushers = new ArrayList<>();
+    private volatile boolean running = true;
+
+    private final Timer flushTimer;
+    private final DistributionSummary flushSizeSummary;
+
+    public CommissionWriter(CommissionService commissionService,
+                            MeterRegistry meterRegistry,
+                            @Value("${commission.writer.flush-size:5000}") int flushSize,
+                            @Value("${commission.writer.flush-interval:PT0.02S}") Duration flushInterval,
+                            @Value("${commission.writer.max-pending:50000}") int maxPending,
+                            @Value("${commission.writer.submit-timeout:PT30S}") Duration submitTimeout,
+                            @Value("${commission.writer.flush-threads:2}") int flushThreads) {
+        this.commissionService = commissionService;
+        this.flushSize = flushSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.maxPending = maxPending;
+        this.submitTimeout = submitTimeout;
+        this.capacity = new Semaphore(maxPending);
+
+        this.flushTimer = Timer.builder("commission.writer.flush")
+                .description("Time to write one flush of buffered commissions")
+                .register(meterRegistry);
+        this.flushSizeSummary = DistributionSummary.builder("commission.writer.flush.size")
+                .description("Completed transactions written per flush")
+                .register(meterRegistry);
+        Gauge.builder("commission.writer.pending", capacity, c -> maxPending - c.availablePermits())
+                .description("Completed transactions buffered or being written")
+                .register(meterRegistry);
+
+        for (int i = 0; i < flushThreads; i++) {
+            Thread flusher = new Thread(this::flushLoop, "commission-writer-" + i);
+            flusher.setDaemon(true);
+            flusher.start();
+            flushers.add(flusher);
+        }
+    }
+
+    /**
+     * Record commissions for completed transactions, returning once they are committed
+     * @return the given events no commission can be recorded for
+     * @throws RejectedExecutionException if the buffer stays full for submit-timeout
+     */
+    public List<RejectedTransactionEvent> write(List<TransactionCompletedEvent> events) {
+        if (events.isEmpty()) {
+            return List.of();
+        }
+        // A submission larger than the whole buffer only waits for the buffer to drain
+        int permits = Math.min(events.size(), maxPending);
+        try {
+            if (!capacity.tryAcquire(permits, submitTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new RejectedExecutionException(
+                        "Commission writer buffer full, " + events.size() + " transactions rejected");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for commission writer buffer", e);
+        }
+
+        Submission submission = new Submission(events, permits);
+        queue.add(submission);
+        try {
+            return submission.done.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for commissions to be written", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void flushLoop() {
+        List<Submission> batch = new ArrayList<>();
+        while (running) {
+            try {
+                Submission first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                int pending = first.events.size();
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (pending < flushSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Submission next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    pending += next.events.size();
+                }
+                flush(batch, pending);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failAll(batch, new IllegalStateException("Commission writer stopped"));
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<Submission> batch, int size) {
+        List<TransactionCompletedEvent> events = new ArrayList<>(size);
+        for (Submission submission : batch) {
+            events.addAll(submission.events);
+        }
+        long start = System.nanoTime();
+        try {
+            List<RejectedTransactionEvent> rejected = commissionService.recordCommissions(events);
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            flushSizeSummary.record(size);
+            if (rejected.isEmpty() || batch.size() == 1) {
+                batch.forEach(submission -> complete(submission, rejected));
+                return;
+            }
+            // Hand each caller the rejections of its own events
+            Map<TransactionCompletedEvent, RejectedTransactionEvent> rejectedByEvent = new IdentityHashMap<>();
+            rejected.forEach(rejection -> rejectedByEvent.put(rejection.getEvent(), rejection));
+            for (Submission submission : batch) {
+                List<RejectedTransactionEvent> own = new ArrayList<>();
+                for (TransactionCompletedEvent event : submission.events) {
+                    RejectedTransactionEvent rejection = rejectedByEvent.get(event);
+                    if (rejection != null) {
+                        own.add(rejection);
+                    }
+                }
+                complete(submission, own);
+            }
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                log.error("Failed to write {} buffered commissions: {}", size, e.getMessage());
+                fail(batch.get(0), e);
+                return;
+            }
+            // The merged transaction rolled back: write each caller's submission on its own
+            // so only the submissions that still fail are rejected
+            log.warn("Failed to write {} buffered commissions from {} submissions, retrying each: {}",
+                    size, batch.size(), e.getMessage());
+            for (Submission submission : batch) {
+                try {
+                    complete(submission, commissionService.recordCommissions(submission.events));
+                } catch (RuntimeException submissionError) {
+                    log.error("Failed to write {} buffered commissions: {}",
+                            submission.events.size(), submissionError.getMessage());
+                    fail(submission, submissionError);
+                }
+            }
+        }
+    }
+
+    private void complete(Submission submission, List<RejectedTransactionEvent> rejected) {
+        capacity.release(submission.permits);
+        submission.done.complete(rejected);
+    }
+
+    private void fail(Submission submission, RuntimeException error) {
+        capacity.release(submission.permits);
+        submission.done.completeExceptionally(error);
+    }
+
+    private void failAll(List<Submission> batch, RuntimeException error) {
+        for (Submission submission : batch) {
+            if (!submission.done.isDone()) {
+                fail(submission, error);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        flushers.forEach(Thread::interrupt);
+        List<Submission> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        // Callers fail without acknowledging, so their Kafka records are redelivered
+        failAll(abandoned, new IllegalStateException("Commission writer stopped"));
+    }
+
+    private static final class Submission {
+        private final List<TransactionCompletedEvent> events;
+        private final int permits;
+        private final CompletableFuture<List<RejectedTransactionEvent>> done = new CompletableFuture<>();
+
+        private Submission(List<TransactionCompletedEvent> events, int permits) {
+            this.events = events;
+            this.permits = permits;
+        }
+    }
+}
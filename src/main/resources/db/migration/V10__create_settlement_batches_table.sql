@@ -0,0 +1,33 @@
+-- V10: Settlement batches
+-- Each settlement run records a header; settled commissions point to the batch that settled them.
+
+CREATE TABLE settlement_batches (
+    batch_id            UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    currency            VARCHAR(3),
+    cutoff_at           TIMESTAMP WITH TIME ZONE NOT NULL,
+    status              VARCHAR(20) NOT NULL CHECK (status IN ('RUNNING', 'COMPLETED', 'FAILED')),
+
+    -- Totals, incremented as each chunk commits
+    commission_count    BIGINT NOT NULL DEFAULT 0,
+    total_amount        BIGINT NOT NULL DEFAULT 0,
+
+    error_message       TEXT,
+    started_at          TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    completed_at        TIMESTAMP WITH TIME ZONE
+);
+
+CREATE INDEX idx_settlement_batches_started_at ON settlement_batches(started_at DESC);
+
+ALTER TABLE commission_transactions
+    ADD COLUMN settlement_batch_id UUID REFERENCES settlement_batches(batch_id);
+
+CREATE INDEX idx_commission_transactions_settlement_batch ON commission_transactions(settlement_batch_id)
+    WHERE settlement_batch_id IS NOT NULL;
+
+-- Keyset index for settlement: unsettled rows all share settlement_date = NULL, so the
+-- (settled, settlement_date) index cannot order them; page on (created_at, commission_id) instead
+CREATE INDEX idx_commission_transactions_unsettled_keyset ON commission_transactions(created_at, commission_id)
+    WHERE settled = FALSE AND status = 'COMPLETED';
+
+COMMENT ON TABLE settlement_batches IS 'Settlement run headers with running totals of settled commissions';
+COMMENT ON COLUMN commission_transactions.settlement_batch_id IS 'Settlement batch that settled this commission';
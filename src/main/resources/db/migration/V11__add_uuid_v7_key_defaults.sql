@@ -0,0 +1,20 @@
+-- V11: Time-ordered UUIDv7 keys for commissions and rules
+-- The application generates UUIDv7 keys itself; this default covers rows inserted by SQL
+
+-- RFC 9562 UUIDv7: 48-bit Unix time in milliseconds, version 7, RFC variant, random bits
+CREATE OR REPLACE FUNCTION uuid_generate_v7() RETURNS UUID AS $$
+DECLARE
+    uuid_bytes BYTEA;
+BEGIN
+    uuid_bytes := substring(int8send((extract(epoch FROM clock_timestamp()) * 1000)::BIGINT) FROM 3)
+               || substring(uuid_send(gen_random_uuid()) FROM 7);
+    uuid_bytes := set_byte(uuid_bytes, 6, (get_byte(uuid_bytes, 6) & 15) | 112);
+    uuid_bytes := set_byte(uuid_bytes, 8, (get_byte(uuid_bytes, 8) & 63) | 128);
+    RETURN encode(uuid_bytes, 'hex')::UUID;
+END;
+$$ LANGUAGE plpgsql VOLATILE;
+
+ALTER TABLE commission_transactions ALTER COLUMN commission_id SET DEFAULT uuid_generate_v7();
+ALTER TABLE commission_rules ALTER COLUMN rule_id SET DEFAULT uuid_generate_v7();
+
+COMMENT ON FUNCTION uuid_generate_v7() IS 'Time-ordered UUID (version 7) for B-tree friendly primary keys';
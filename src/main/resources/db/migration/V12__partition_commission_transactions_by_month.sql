@@ -0,0 +1,112 @@
+-- V12: Monthly range partitions for commission_transactions
+-- The table is rebuilt as declarative RANGE partitions on created_at, one per calendar
+-- month (UTC), so date-ranged queries only scan the months they cover and old months can
+-- be detached and archived as a whole. Future partitions are created ahead of time by the
+-- application (commission.partitions.*); the default partition only catches rows that
+-- arrive before their month exists.
+--
+-- A unique constraint on a partitioned table must include the partition key, so the
+-- one-commission-per-transaction guarantee (V8) moves to commission_transaction_keys,
+-- which is claimed in the same statement that inserts the commission.
+
+CREATE SCHEMA IF NOT EXISTS commission_archive;
+
+CREATE TABLE commission_transaction_keys (
+    transaction_id      UUID PRIMARY KEY,
+    commission_id       UUID NOT NULL,
+    created_at          TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+ALTER TABLE commission_transactions RENAME TO commission_transactions_unpartitioned;
+
+CREATE TABLE commission_transactions (
+    commission_id       UUID NOT NULL DEFAULT uuid_generate_v7(),
+    transaction_id      UUID NOT NULL,
+    rule_id             UUID REFERENCES commission_rules(rule_id) ON DELETE SET NULL,
+    currency            VARCHAR(3) NOT NULL,
+
+    -- Commission details
+    amount              BIGINT NOT NULL CHECK (amount >= 0),
+    calculation_basis   JSONB,
+
+    -- Accounting
+    status              VARCHAR(20) DEFAULT 'COMPLETED' CHECK (status IN ('PENDING', 'COMPLETED', 'REFUNDED')),
+    settled             BOOLEAN DEFAULT FALSE,
+    settlement_date     TIMESTAMP WITH TIME ZONE,
+    settlement_batch_id UUID REFERENCES settlement_batches(batch_id),
+
+    -- Audit (partition key)
+    created_at          TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE commission_transactions_default PARTITION OF commission_transactions DEFAULT;
+
+-- Create the partition for the month containing the given date; no-op if it exists
+CREATE OR REPLACE FUNCTION create_commission_transactions_partition(month DATE) RETURNS TEXT AS $$
+DECLARE
+    month_start TIMESTAMP := date_trunc('month', month::TIMESTAMP);
+    partition_name TEXT := 'commission_transactions_p' || to_char(month_start, 'YYYY_MM');
+BEGIN
+    EXECUTE format(
+        'CREATE TABLE IF NOT EXISTS %I PARTITION OF commission_transactions FOR VALUES FROM (%L) TO (%L)',
+        partition_name,
+        month_start AT TIME ZONE 'UTC',
+        (month_start + INTERVAL '1 month') AT TIME ZONE 'UTC');
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+-- One partition per month from the oldest commission through three months ahead
+DO $$
+DECLARE
+    month DATE;
+BEGIN
+    FOR month IN
+        SELECT generate_series(first_month, last_month, INTERVAL '1 month')::DATE
+        FROM (SELECT date_trunc('month', COALESCE(MIN(created_at), CURRENT_TIMESTAMP) AT TIME ZONE 'UTC') AS first_month,
+                     date_trunc('month', CURRENT_TIMESTAMP AT TIME ZONE 'UTC') + INTERVAL '3 months' AS last_month
+              FROM commission_transactions_unpartitioned) bounds
+    LOOP
+        PERFORM create_commission_transactions_partition(month);
+    END LOOP;
+END $$;
+
+INSERT INTO commission_transactions
+    (commission_id, transaction_id, rule_id, currency, amount, calculation_basis,
+     status, settled, settlement_date, settlement_batch_id, created_at)
+SELECT commission_id, transaction_id, rule_id, currency, amount, calculation_basis,
+       status, settled, settlement_date, settlement_batch_id, COALESCE(created_at, CURRENT_TIMESTAMP)
+FROM commission_transactions_unpartitioned;
+
+INSERT INTO commission_transaction_keys (transaction_id, commission_id, created_at)
+SELECT transaction_id, commission_id, created_at
+FROM commission_transactions;
+
+DROP TABLE commission_transactions_unpartitioned;
+
+-- Indexes are created on the parent and cascade to every partition, present and future
+ALTER TABLE commission_transactions ADD PRIMARY KEY (commission_id, created_at);
+CREATE INDEX idx_commission_transactions_transaction ON commission_transactions(transaction_id);
+CREATE INDEX idx_commission_transactions_currency ON commission_transactions(currency);
+CREATE INDEX idx_commission_transactions_created_at ON commission_transactions(created_at DESC);
+CREATE INDEX idx_commission_transactions_settled ON commission_transactions(settled, settlement_date);
+CREATE INDEX idx_commission_transactions_status ON commission_transactions(status);
+CREATE INDEX idx_commission_transactions_revenue_new ON commission_transactions(currency, status, created_at)
+    WHERE status = 'COMPLETED';
+CREATE INDEX idx_commission_transactions_settlement_new ON commission_transactions(settled, settlement_date)
+    WHERE settled = FALSE;
+CREATE INDEX idx_commission_transactions_settlement_batch ON commission_transactions(settlement_batch_id)
+    WHERE settlement_batch_id IS NOT NULL;
+CREATE INDEX idx_commission_transactions_unsettled_keyset ON commission_transactions(created_at, commission_id)
+    WHERE settled = FALSE AND status = 'COMPLETED';
+
+ANALYZE commission_transactions;
+ANALYZE commission_transaction_keys;
+
+COMMENT ON TABLE commission_transactions IS 'Platform commission revenue tracking per transaction, range-partitioned by month of created_at';
+COMMENT ON COLUMN commission_transactions.calculation_basis IS 'JSON object storing calculation details (percentage, fixed, min, max applied)';
+COMMENT ON COLUMN commission_transactions.amount IS 'Commission amount in XOF/XAF';
+COMMENT ON COLUMN commission_transactions.settlement_batch_id IS 'Settlement batch that settled this commission';
+COMMENT ON TABLE commission_transaction_keys IS 'One row per transaction with a commission; enforces uniqueness of transaction_id across partitions and locates its partition';
+COMMENT ON SCHEMA commission_archive IS 'Commission partitions detached after the retention period';
+COMMENT ON FUNCTION create_commission_transactions_partition(DATE) IS 'Creates the monthly commission_transactions partition containing the given date';
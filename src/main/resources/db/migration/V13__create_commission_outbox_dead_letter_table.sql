@@ -0,0 +1,28 @@
+-- V13: Dead letter store for commission events
+-- Events that still fail after commission.outbox.max-attempts publish attempts are moved
+-- here, together with the later events of the same transaction so they are never
+-- published out of order. Rows keep their outbox_id and can be requeued by inserting
+-- them back into commission_outbox.
+
+CREATE TABLE commission_outbox_dead_letter (
+    outbox_id           BIGINT PRIMARY KEY,
+    event_type          VARCHAR(30) NOT NULL,
+
+    -- Event payload
+    commission_id       UUID NOT NULL,
+    transaction_id      UUID NOT NULL,
+    currency            VARCHAR(3) NOT NULL,
+    amount              BIGINT NOT NULL,
+    calculation_basis   JSONB,
+    settlement_date     TIMESTAMP WITH TIME ZONE,
+    occurred_at         TIMESTAMP WITH TIME ZONE NOT NULL,
+
+    -- Delivery
+    attempts            INTEGER NOT NULL,
+    last_error          TEXT,
+    dead_lettered_at    TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_commission_outbox_dead_letter_transaction ON commission_outbox_dead_letter(transaction_id, outbox_id);
+
+COMMENT ON TABLE commission_outbox_dead_letter IS 'Commission events given up on by the outbox relay after max-attempts failed publishes';
@@ -0,0 +1,29 @@
+-- V7: Transactional outbox for commission events
+-- Events are written in the same transaction as the commission change and
+-- relayed to Kafka in the background, so a DB commit always yields an event.
+
+CREATE TABLE commission_outbox (
+    outbox_id           BIGSERIAL PRIMARY KEY,
+    event_type          VARCHAR(30) NOT NULL CHECK (event_type IN ('COMMISSION_COLLECTED', 'COMMISSION_REFUNDED', 'COMMISSION_SETTLED')),
+
+    -- Event payload
+    commission_id       UUID NOT NULL,
+    transaction_id      UUID NOT NULL,
+    currency            VARCHAR(3) NOT NULL,
+    amount              BIGINT NOT NULL,
+    calculation_basis   JSONB,
+    settlement_date     TIMESTAMP WITH TIME ZONE,
+    occurred_at         TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    -- Delivery
+    attempts            INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at     TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_error          TEXT
+);
+
+-- Relay reads the oldest pending event of each transaction
+CREATE INDEX idx_commission_outbox_transaction ON commission_outbox(transaction_id, outbox_id);
+CREATE INDEX idx_commission_outbox_next_attempt ON commission_outbox(next_attempt_at, outbox_id);
+
+COMMENT ON TABLE commission_outbox IS 'Commission events pending publication to Kafka; rows are deleted once published';
+COMMENT ON COLUMN commission_outbox.next_attempt_at IS 'Earliest time of the next publish attempt (exponential backoff after failures)';
@@ -0,0 +1,34 @@
+-- V8: One commission per transaction
+-- Makes commission recording idempotent: redelivered or retried transactions
+-- hit the constraint (INSERT ... ON CONFLICT DO NOTHING) instead of creating duplicates.
+-- Duplicates recorded before this migration are resolved first: the earliest commission
+-- of each transaction is kept and the others are moved to
+-- commission_transactions_duplicates for review.
+
+CREATE TABLE commission_transactions_duplicates (
+    LIKE commission_transactions,
+    removed_at          TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+WITH ranked AS (
+    SELECT commission_id,
+           ROW_NUMBER() OVER (PARTITION BY transaction_id
+                              ORDER BY created_at NULLS LAST, commission_id) AS position
+    FROM commission_transactions
+),
+removed AS (
+    DELETE FROM commission_transactions ct
+    USING ranked
+    WHERE ranked.commission_id = ct.commission_id AND ranked.position > 1
+    RETURNING ct.*
+)
+INSERT INTO commission_transactions_duplicates
+SELECT * FROM removed;
+
+ALTER TABLE commission_transactions
+    ADD CONSTRAINT commission_transactions_transaction_id_key UNIQUE (transaction_id);
+
+-- The unique constraint's index replaces the plain lookup index
+DROP INDEX IF EXISTS idx_commission_transactions_transaction;
+
+COMMENT ON TABLE commission_transactions_duplicates IS 'Duplicate commissions of a transaction removed by V8; the earliest one was kept';
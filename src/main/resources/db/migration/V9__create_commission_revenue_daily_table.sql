@@ -0,0 +1,39 @@
+-- V9: Daily revenue rollup
+-- Maintained incrementally in the same transaction as commission inserts and refunds,
+-- so revenue reports read one row per day/currency/transfer type instead of scanning
+-- commission_transactions. Commissions are bucketed by the UTC date they were recorded,
+-- like the monthly partitions, so buckets do not depend on the session time zone;
+-- a refund is subtracted from the bucket of the commission it reverses.
+
+CREATE TABLE commission_revenue_daily (
+    revenue_date        DATE NOT NULL,
+    currency            VARCHAR(3) NOT NULL,
+    transfer_type       VARCHAR(20) NOT NULL,
+
+    collected_amount    BIGINT NOT NULL DEFAULT 0,
+    collected_count     BIGINT NOT NULL DEFAULT 0,
+    refunded_amount     BIGINT NOT NULL DEFAULT 0,
+    refunded_count      BIGINT NOT NULL DEFAULT 0,
+
+    updated_at          TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+
+    PRIMARY KEY (revenue_date, currency, transfer_type)
+);
+
+-- Backfill from existing commissions
+INSERT INTO commission_revenue_daily
+    (revenue_date, currency, transfer_type, collected_amount, collected_count, refunded_amount, refunded_count)
+SELECT (ct.created_at AT TIME ZONE 'UTC')::date,
+       ct.currency,
+       COALESCE(r.transfer_type, 'UNKNOWN'),
+       SUM(ct.amount),
+       COUNT(*),
+       COALESCE(SUM(ct.amount) FILTER (WHERE ct.status = 'REFUNDED'), 0),
+       COUNT(*) FILTER (WHERE ct.status = 'REFUNDED')
+FROM commission_transactions ct
+LEFT JOIN commission_rules r ON r.rule_id = ct.rule_id
+WHERE ct.status IN ('COMPLETED', 'REFUNDED')
+GROUP BY 1, 2, 3;
+
+COMMENT ON TABLE commission_revenue_daily IS 'Commission revenue per day, currency and transfer type, maintained as commissions are recorded and refunded';
+COMMENT ON COLUMN commission_revenue_daily.transfer_type IS 'Transfer type of the applied rule, UNKNOWN when the rule no longer exists';
@@ -0,0 +1,24 @@
+package com.payment.commission.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the Accept-Encoding negotiation of the commission export
+ */
+class CommissionControllerTest {
+
+    @Test
+    void gzipsExportOnlyWhenAccepted() {
+        assertThat(CommissionController.acceptsGzip(null)).isFalse();
+        assertThat(CommissionController.acceptsGzip("identity")).isFalse();
+        assertThat(CommissionController.acceptsGzip("gzip")).isTrue();
+        assertThat(CommissionController.acceptsGzip("deflate, GZIP;q=0.5")).isTrue();
+        assertThat(CommissionController.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(CommissionController.acceptsGzip("gzip; q=0.0, deflate")).isFalse();
+        assertThat(CommissionController.acceptsGzip("*")).isTrue();
+        assertThat(CommissionController.acceptsGzip("gzip;q=0, *")).isFalse();
+        assertThat(CommissionController.acceptsGzip("*;q=0")).isFalse();
+    }
+}
@@ -0,0 +1,120 @@
+package com.payment.commission.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.payment.commission.config.CborConfig;
+import com.payment.commission.domain.entity.CommissionRule;
+import com.payment.commission.dto.response.CalculationDetails;
+import com.payment.commission.dto.response.FeeCalculationResult;
+import com.payment.commission.service.rule.CompiledRule;
+import com.payment.common.enums.Currency;
+import com.payment.common.enums.TransferType;
+import com.payment.common.i18n.MessageService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the JSON/CBOR negotiation of {@link FeeResponseWriter}
+ */
+class FeeResponseWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final MappingJackson2CborHttpMessageConverter cborConverter =
+            new CborConfig().cborHttpMessageConverter(objectMapper);
+    private final FeeResponseWriter writer = new FeeResponseWriter(objectMapper, new MessageService() {
+        @Override
+        public String getMessage(String key, Object... args) {
+            return "Fee calculated";
+        }
+
+        @Override
+        public String getMessageOrDefault(String key, String defaultMessage) {
+            return defaultMessage;
+        }
+    }, cborConverter);
+
+    @Test
+    void prefersCborOnlyWhenNamedExplicitly() {
+        assertThat(FeeResponseWriter.prefersCbor(null)).isFalse();
+        assertThat(FeeResponseWriter.prefersCbor("*/*")).isFalse();
+        assertThat(FeeResponseWriter.prefersCbor("application/*")).isFalse();
+        assertThat(FeeResponseWriter.prefersCbor("application/json")).isFalse();
+        assertThat(FeeResponseWriter.prefersCbor("application/cbor")).isTrue();
+        assertThat(FeeResponseWriter.prefersCbor("application/cbor, application/json")).isTrue();
+        assertThat(FeeResponseWriter.prefersCbor("application/json, application/cbor")).isFalse();
+        assertThat(FeeResponseWriter.prefersCbor("application/json;q=0.5, application/cbor")).isTrue();
+        assertThat(FeeResponseWriter.prefersCbor("application/cbor;q=0, */*")).isFalse();
+    }
+
+    @Test
+    void writesSameDataAsSmallerCbor() throws Exception {
+        FeeCalculationResult result = result();
+
+        ResponseEntity<byte[]> json = writer.write(result, null, "application/json");
+        ResponseEntity<byte[]> cbor = writer.write(result, null, "application/cbor");
+
+        assertThat(json.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(cbor.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_CBOR);
+        JsonNode jsonTree = objectMapper.readTree(json.getBody());
+        JsonNode cborTree = cborConverter.getObjectMapper().readTree(cbor.getBody());
+        // UUIDs are written as 16-byte binary in CBOR
+        assertThat(cborTree.at("/data/ruleId").binaryValue()).hasSize(16);
+        assertThat(cborTree.at("/data/calculationDetails/ruleId").binaryValue()).hasSize(16);
+        // Compared as text: CBOR decodes numbers to their own node types (e.g. BigDecimal)
+        assertThat(withoutRuleIds(cborTree.get("data")).toString())
+                .isEqualTo(withoutRuleIds(jsonTree.get("data")).toString());
+        assertThat(cborTree.get("success").asBoolean()).isTrue();
+        assertThat(cborTree.get("message").isNull()).isTrue();
+        assertThat(cbor.getBody().length).isLessThan(json.getBody().length);
+    }
+
+    @Test
+    void writesOnlyTheFeeWithoutDetail() throws Exception {
+        ResponseEntity<byte[]> response = writer.write(result(), "none", null);
+
+        JsonNode data = objectMapper.readTree(response.getBody()).get("data");
+        assertThat(data.size()).isEqualTo(1);
+        assertThat(data.get("commissionAmount").asLong()).isEqualTo(850L);
+    }
+
+    private static JsonNode withoutRuleIds(JsonNode data) {
+        ObjectNode copy = data.deepCopy();
+        copy.remove("ruleId");
+        ((ObjectNode) copy.get("calculationDetails")).remove("ruleId");
+        return copy;
+    }
+
+    private static FeeCalculationResult result() {
+        CompiledRule rule = CompiledRule.of(CommissionRule.builder()
+                .ruleId(UUID.randomUUID())
+                .currency(Currency.XOF)
+                .transferType(TransferType.SAME_WALLET)
+                .percentage(new BigDecimal("0.0050"))
+                .fixedAmount(100L)
+                .minAmount(100L)
+                .maxAmount(1000L)
+                .priority(10)
+                .isActive(true)
+                .description("BCEAO: 100 XOF + 0.5%")
+                .build());
+        long amount = 150_000L;
+        long feeAmount = rule.calculateFee(amount);
+        return FeeCalculationResult.builder()
+                .amount(amount)
+                .currency(Currency.XOF)
+                .commissionAmount(feeAmount)
+                .ruleId(rule.getRuleId())
+                .transferType(TransferType.SAME_WALLET)
+                .calculationDetails(new CalculationDetails(
+                        rule.getCalculationDetails(), feeAmount, amount, Currency.XOF, TransferType.SAME_WALLET))
+                .build();
+    }
+}
@@ -0,0 +1,41 @@
+package com.payment.commission.domain.id;
+
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.constraints.LongRange;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link UuidV7} layout and ordering
+ */
+class UuidV7Test {
+
+    @Property
+    void encodesVersionVariantAndTimestamp(@ForAll @LongRange(min = 0L, max = (1L << 48) - 1) long epochMillis) {
+        UUID uuid = UuidV7.at(epochMillis);
+
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+        assertThat(UuidV7.epochMillis(uuid)).isEqualTo(epochMillis);
+    }
+
+    @Property
+    void sortsByTimeAsStringAndInPostgresByteOrder(@ForAll @LongRange(min = 0L, max = (1L << 48) - 2) long epochMillis) {
+        UUID earlier = UuidV7.at(epochMillis);
+        UUID later = UuidV7.at(epochMillis + 1);
+
+        // PostgreSQL compares UUIDs as unsigned bytes, which matches the textual order
+        assertThat(earlier.toString()).isLessThan(later.toString());
+    }
+
+    @Test
+    void generatesDistinctKeysWithinTheSameMillisecond() {
+        long now = System.currentTimeMillis();
+
+        assertThat(UuidV7.at(now)).isNotEqualTo(UuidV7.at(now));
+    }
+}
@@ -0,0 +1,194 @@
+package com.payment.commission.domain.model;
+
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.Provide;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests proving {@link BceaoTariff} agrees with the calculate_transfer_fee SQL
+ * function (V4) over the full BIGINT amount range
+ */
+class BceaoTariffTest {
+
+    private static final BceaoTariff STANDARD = BceaoTariff.of(5_000L, 100L, new BigDecimal("0.005"), 1_000L);
+
+    @Property(tries = 20_000)
+    void matchesSqlFunction(@ForAll("amounts") long amount) {
+        assertThat(STANDARD.calculate(amount)).isEqualTo(calculateTransferFee(amount));
+    }
+
+    @Property(tries = 20_000)
+    void matchesReferenceForAnyTariff(@ForAll("amounts") long amount,
+                                      @ForAll("thresholds") long freeThreshold,
+                                      @ForAll("fees") long fixedFee,
+                                      @ForAll("percentages") BigDecimal percentage,
+                                      @ForAll("fees") long maxFee) {
+        BceaoTariff tariff = BceaoTariff.of(freeThreshold, fixedFee, percentage, maxFee);
+
+        assertThat(tariff.calculate(amount))
+                .isEqualTo(referenceFee(amount, freeThreshold, fixedFee, percentage, maxFee));
+    }
+
+    @Test
+    void appliesStandardTariff() {
+        assertThat(STANDARD.calculate(5_000L)).isEqualTo(0L);
+        // 100 + floor(25.5), where the previous Math.round gave 126
+        assertThat(STANDARD.calculate(5_100L)).isEqualTo(125L);
+        assertThat(STANDARD.calculate(179_999L)).isEqualTo(999L);
+        assertThat(STANDARD.calculate(180_000L)).isEqualTo(1_000L);
+        assertThat(STANDARD.calculate(Long.MAX_VALUE)).isEqualTo(1_000L);
+        assertThat(STANDARD.getSaturationAmount()).isEqualTo(180_000L);
+    }
+
+    @Test
+    void keepsFixedFeeWithoutPercentage() {
+        BceaoTariff tariff = BceaoTariff.of(5_000L, 100L, BigDecimal.ZERO, 1_000L);
+
+        assertThat(tariff.calculate(5_001L)).isEqualTo(100L);
+        assertThat(tariff.calculate(Long.MAX_VALUE)).isEqualTo(100L);
+    }
+
+    @Test
+    void calculatesManyAmounts() {
+        long[] amounts = new SplittableRandom(42).longs(10_000, 0L, 1_000_000L).toArray();
+
+        long[] fees = STANDARD.calculate(amounts);
+
+        for (int i = 0; i < amounts.length; i++) {
+            assertThat(fees[i]).isEqualTo(STANDARD.calculate(amounts[i]));
+        }
+        assertThatThrownBy(() -> STANDARD.calculate(amounts, new long[amounts.length - 1]))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsInvalidTariffs() {
+        assertThatThrownBy(() -> BceaoTariff.of(-1L, 100L, new BigDecimal("0.005"), 1_000L))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BceaoTariff.of(5_000L, 100L, new BigDecimal("1.5"), 1_000L))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BceaoTariff.of(5_000L, 100L, new BigDecimal("0.0000000001"), 1_000L))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BceaoTariff.of(5_000L, 0L, new BigDecimal("0.005"), Long.MAX_VALUE))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Runs the V4 function itself in PostgreSQL; skipped when Docker is unavailable
+     */
+    @Nested
+    @Testcontainers(disabledWithoutDocker = true)
+    class InPostgres {
+
+        @Container
+        private final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+        @Test
+        void matchesSqlFunction() throws Exception {
+            Long[] amounts = new SplittableRandom(7).longs(100_000, 0L, 1_000_000L).boxed().toArray(Long[]::new);
+            amounts[0] = Long.MAX_VALUE;
+            amounts[1] = Long.MIN_VALUE;
+            amounts[2] = 5_000L;
+            amounts[3] = 5_001L;
+            amounts[4] = 180_000L;
+
+            try (Connection connection = DriverManager.getConnection(
+                    postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(calculateTransferFeeFunction());
+                }
+                Array amountArray = connection.createArrayOf("bigint", amounts);
+                try (PreparedStatement statement = connection.prepareStatement(
+                        "SELECT amount, calculate_transfer_fee(amount) FROM unnest(?::bigint[]) AS amount")) {
+                    statement.setArray(1, amountArray);
+                    int rows = 0;
+                    try (ResultSet rs = statement.executeQuery()) {
+                        while (rs.next()) {
+                            assertThat(STANDARD.calculate(rs.getLong(1))).as("fee of %d", rs.getLong(1))
+                                    .isEqualTo(rs.getLong(2));
+                            rows++;
+                        }
+                    }
+                    assertThat(rows).isEqualTo(amounts.length);
+                }
+            }
+        }
+    }
+
+    @Provide
+    Arbitrary<Long> amounts() {
+        return Arbitraries.oneOf(
+                Arbitraries.longs(),
+                Arbitraries.longs().between(0L, 1_000_000L)
+        ).edgeCases(edges -> edges.add(Long.MIN_VALUE, Long.MAX_VALUE, 0L, 5_000L, 5_001L, 179_999L, 180_000L));
+    }
+
+    @Provide
+    Arbitrary<Long> thresholds() {
+        return Arbitraries.longs().between(0L, 100_000L);
+    }
+
+    @Provide
+    Arbitrary<Long> fees() {
+        return Arbitraries.longs().between(0L, 1_000_000L);
+    }
+
+    @Provide
+    Arbitrary<BigDecimal> percentages() {
+        return Arbitraries.integers().between(0, 9).flatMap(scale ->
+                Arbitraries.longs().between(0L, BigDecimal.ONE.scaleByPowerOfTen(scale).longValueExact())
+                        .map(unscaled -> BigDecimal.valueOf(unscaled, scale)));
+    }
+
+    /**
+     * Transliteration of calculate_transfer_fee (V4) with NUMERIC arithmetic
+     */
+    private static long calculateTransferFee(long amount) {
+        return referenceFee(amount, 5_000L, 100L, new BigDecimal("0.005"), 1_000L);
+    }
+
+    private static long referenceFee(long amount, long freeThreshold, long fixedFee,
+                                     BigDecimal percentage, long maxFee) {
+        if (amount <= freeThreshold) {
+            return 0L;
+        }
+        BigDecimal totalFee = BigDecimal.valueOf(fixedFee)
+                .add(BigDecimal.valueOf(amount).multiply(percentage).setScale(0, RoundingMode.FLOOR));
+        if (totalFee.compareTo(BigDecimal.valueOf(maxFee)) > 0) {
+            return maxFee;
+        }
+        return totalFee.longValueExact();
+    }
+
+    private static String calculateTransferFeeFunction() throws IOException {
+        try (InputStream migration = BceaoTariffTest.class.getResourceAsStream("/db/migration/V4__add_indexes.sql")) {
+            String sql = new String(migration.readAllBytes(), StandardCharsets.UTF_8);
+            int start = sql.indexOf("CREATE OR REPLACE FUNCTION calculate_transfer_fee");
+            String end = "LANGUAGE plpgsql;";
+            return sql.substring(start, sql.indexOf(end, start) + end.length());
+        }
+    }
+}
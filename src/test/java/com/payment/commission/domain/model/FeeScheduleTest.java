@@ -0,0 +1,240 @@
+package com.payment.commission.domain.model;
+
+import com.payment.commission.domain.entity.CommissionRule;
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.Provide;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Property-based tests proving {@link FeeSchedule} is bit-for-bit equal to the
+ * original BigDecimal fee calculation over the full BIGINT amount range
+ */
+class FeeScheduleTest {
+
+    private static final BigDecimal LONG_MIN = BigDecimal.valueOf(Long.MIN_VALUE);
+    private static final BigDecimal LONG_MAX = BigDecimal.valueOf(Long.MAX_VALUE);
+
+    @Property(tries = 20_000)
+    void matchesBigDecimalCalculationForNumericPercentages(@ForAll("amounts") long amount,
+                                                          @ForAll("numericPercentages") BigDecimal percentage,
+                                                          @ForAll("fixedAmounts") Long fixedAmount,
+                                                          @ForAll("limits") Long minAmount,
+                                                          @ForAll("limits") Long maxAmount) {
+        assertMatchesReference(amount, percentage, fixedAmount, minAmount, maxAmount);
+    }
+
+    @Property(tries = 20_000)
+    void matchesBigDecimalCalculationForAnySupportedScale(@ForAll("amounts") long amount,
+                                                         @ForAll("scaledPercentages") BigDecimal percentage,
+                                                         @ForAll("fixedAmounts") Long fixedAmount,
+                                                         @ForAll("limits") Long minAmount,
+                                                         @ForAll("limits") Long maxAmount) {
+        assertMatchesReference(amount, percentage, fixedAmount, minAmount, maxAmount);
+    }
+
+    @Property(tries = 5_000)
+    void neverExceedsMaximumWhenMaximumIsAtLeastMinimum(@ForAll("amounts") long amount,
+                                                        @ForAll("numericPercentages") BigDecimal percentage,
+                                                        @ForAll("realisticLimits") long minAmount,
+                                                        @ForAll("realisticLimits") long maxAmount) {
+        FeeSchedule schedule = FeeSchedule.of(percentage, 0L, Math.min(minAmount, maxAmount), Math.max(minAmount, maxAmount));
+
+        long fee = schedule.calculate(amount);
+
+        assertThat(fee).isBetween(Math.min(minAmount, maxAmount), Math.max(minAmount, maxAmount));
+    }
+
+    @Test
+    void appliesBceaoStandardRule() {
+        // V3 rule 2: 0.5% + 100 XOF, min 100, max 1,000
+        FeeSchedule schedule = FeeSchedule.of(new BigDecimal("0.0050"), 100L, 100L, 1000L);
+
+        assertThat(schedule.calculate(5_001L)).isEqualTo(125L);
+        assertThat(schedule.calculate(10_000L)).isEqualTo(150L);
+        assertThat(schedule.calculate(180_000L)).isEqualTo(1000L);
+        assertThat(schedule.calculate(1_000_000L)).isEqualTo(1000L);
+    }
+
+    @Test
+    void truncatesPercentageFeeTowardZero() {
+        FeeSchedule schedule = FeeSchedule.of(new BigDecimal("0.0099"), null, null, null);
+
+        assertThat(schedule.calculate(101L)).isEqualTo(0L);
+        assertThat(schedule.calculate(102L)).isEqualTo(1L);
+        assertThat(schedule.calculate(-102L)).isEqualTo(-1L);
+    }
+
+    @Test
+    void handlesExtremeAmountsWithoutOverflow() {
+        FeeSchedule schedule = FeeSchedule.of(BigDecimal.ONE, null, null, null);
+
+        assertThat(schedule.calculate(Long.MAX_VALUE)).isEqualTo(Long.MAX_VALUE);
+        assertThat(schedule.calculate(Long.MIN_VALUE)).isEqualTo(Long.MIN_VALUE);
+    }
+
+    @Test
+    void rejectsOverflowOfFixedAmount() {
+        FeeSchedule schedule = FeeSchedule.of(BigDecimal.ONE, 1L, null, null);
+
+        assertThatThrownBy(() -> schedule.calculate(Long.MAX_VALUE)).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void bulkCalculationMatchesSingleAmounts() {
+        FeeSchedule schedule = FeeSchedule.of(new BigDecimal("0.0050"), 100L, 100L, 1000L);
+        long[] amounts = new SplittableRandom(42).longs(200_000, -1_000L, 2_000_000L).toArray();
+        long[] expected = new long[amounts.length];
+        for (int i = 0; i < amounts.length; i++) {
+            expected[i] = schedule.calculate(amounts[i]);
+        }
+
+        long[] fees = new long[amounts.length];
+        schedule.calculate(amounts, fees);
+        assertThat(fees).isEqualTo(expected);
+
+        long[] parallelFees = new long[amounts.length];
+        schedule.calculateParallel(amounts, parallelFees, ForkJoinPool.commonPool());
+        assertThat(parallelFees).isEqualTo(expected);
+
+        LongBuffer directAmounts = ByteBuffer.allocateDirect(amounts.length * Long.BYTES).asLongBuffer();
+        directAmounts.put(amounts).flip();
+        LongBuffer directFees = ByteBuffer.allocateDirect(amounts.length * Long.BYTES).asLongBuffer();
+        schedule.calculateParallel(directAmounts, directFees, ForkJoinPool.commonPool());
+        assertThat(directAmounts.hasRemaining()).isFalse();
+        long[] bufferFees = new long[amounts.length];
+        directFees.flip().get(bufferFees);
+        assertThat(bufferFees).isEqualTo(expected);
+
+        assertThatThrownBy(() -> schedule.calculate(amounts, new long[amounts.length - 1]))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void ruleReusesScheduleUntilFeeFieldChanges() {
+        CommissionRule rule = CommissionRule.builder()
+                .percentage(new BigDecimal("0.0050"))
+                .fixedAmount(100L)
+                .minAmount(100L)
+                .maxAmount(1000L)
+                .build();
+
+        FeeSchedule schedule = rule.toFeeSchedule();
+        assertThat(rule.toFeeSchedule()).isSameAs(schedule);
+        assertThat(rule.calculateFee(150_000L)).isEqualTo(850L);
+
+        rule.setMaxAmount(500L);
+        assertThat(rule.toFeeSchedule()).isNotSameAs(schedule);
+        assertThat(rule.calculateFee(150_000L)).isEqualTo(500L);
+    }
+
+    @Test
+    void rejectsUnsupportedPercentages() {
+        assertThatThrownBy(() -> FeeSchedule.of(new BigDecimal("1.0001"), null, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FeeSchedule.of(new BigDecimal("-0.0001"), null, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FeeSchedule.of(new BigDecimal("0.0000000001"), null, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Provide
+    Arbitrary<Long> amounts() {
+        return Arbitraries.oneOf(
+                Arbitraries.longs(),
+                Arbitraries.longs().between(0L, 10_000_000_000L)
+        ).edgeCases(edges -> edges.add(Long.MIN_VALUE, Long.MAX_VALUE, 0L, -1L, 1L, 9_999L, 10_000L));
+    }
+
+    /**
+     * Percentages as stored in the NUMERIC(5,4) column
+     */
+    @Provide
+    Arbitrary<BigDecimal> numericPercentages() {
+        return Arbitraries.integers().between(0, 10_000).map(unscaled -> BigDecimal.valueOf(unscaled, 4));
+    }
+
+    @Provide
+    Arbitrary<BigDecimal> scaledPercentages() {
+        return Arbitraries.integers().between(0, 9).flatMap(scale ->
+                Arbitraries.longs().between(0L, BigDecimal.ONE.scaleByPowerOfTen(scale).longValueExact())
+                        .map(unscaled -> BigDecimal.valueOf(unscaled, scale)));
+    }
+
+    @Provide
+    Arbitrary<Long> fixedAmounts() {
+        return Arbitraries.oneOf(
+                Arbitraries.longs(),
+                Arbitraries.longs().between(0L, 10_000L)
+        ).injectNull(0.2);
+    }
+
+    @Provide
+    Arbitrary<Long> limits() {
+        return Arbitraries.oneOf(
+                Arbitraries.longs(),
+                Arbitraries.longs().between(0L, 100_000L)
+        ).injectNull(0.3);
+    }
+
+    @Provide
+    Arbitrary<Long> realisticLimits() {
+        return Arbitraries.longs().between(0L, 1_000_000L);
+    }
+
+    private static void assertMatchesReference(long amount, BigDecimal percentage,
+                                               Long fixedAmount, Long minAmount, Long maxAmount) {
+        FeeSchedule schedule = FeeSchedule.of(percentage, fixedAmount, minAmount, maxAmount);
+
+        if (overflows(amount, percentage, fixedAmount)) {
+            assertThatThrownBy(() -> schedule.calculate(amount)).isInstanceOf(ArithmeticException.class);
+        } else {
+            assertThat(schedule.calculate(amount))
+                    .isEqualTo(referenceFee(amount, percentage, fixedAmount, minAmount, maxAmount));
+        }
+    }
+
+    /**
+     * The original CommissionRule.calculateFee implementation
+     */
+    private static long referenceFee(long amount, BigDecimal percentage,
+                                     Long fixedAmount, Long minAmount, Long maxAmount) {
+        BigDecimal percentageFee = BigDecimal.valueOf(amount)
+                .multiply(percentage)
+                .setScale(0, RoundingMode.DOWN);
+
+        long totalFee = percentageFee.longValue() + (fixedAmount != null ? fixedAmount : 0);
+
+        if (minAmount != null && totalFee < minAmount) {
+            totalFee = minAmount;
+        }
+        if (maxAmount != null && totalFee > maxAmount) {
+            totalFee = maxAmount;
+        }
+        return totalFee;
+    }
+
+    /**
+     * Whether percentage fee plus fixed amount falls outside the long range, where the
+     * original implementation silently wrapped around and the kernel throws instead
+     */
+    private static boolean overflows(long amount, BigDecimal percentage, Long fixedAmount) {
+        BigDecimal exact = BigDecimal.valueOf(amount)
+                .multiply(percentage)
+                .setScale(0, RoundingMode.DOWN)
+                .add(BigDecimal.valueOf(fixedAmount != null ? fixedAmount : 0));
+        return exact.compareTo(LONG_MIN) < 0 || exact.compareTo(LONG_MAX) > 0;
+    }
+}
@@ -0,0 +1,83 @@
+package com.payment.commission.dto.response;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.payment.commission.domain.entity.CommissionRule;
+import com.payment.commission.service.rule.CompiledRule;
+import com.payment.common.dto.commission.response.FeeCalculationResponse;
+import com.payment.common.enums.Currency;
+import com.payment.common.enums.KYCLevel;
+import com.payment.common.enums.TransferType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests that {@link FeeCalculationResult} keeps the JSON contract of the shared
+ * {@link FeeCalculationResponse} with its calculation details map
+ */
+class FeeCalculationResultTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void serializesLikeCalculationDetailsMap() throws Exception {
+        CommissionRule rule = CommissionRule.builder()
+                .ruleId(UUID.randomUUID())
+                .currency(Currency.XOF)
+                .transferType(TransferType.SAME_WALLET)
+                .kycLevel(KYCLevel.LEVEL_1)
+                .percentage(new BigDecimal("0.0050"))
+                .fixedAmount(100L)
+                .minAmount(100L)
+                .maxAmount(null)
+                .priority(10)
+                .isActive(true)
+                .description("BCEAO: 100 XOF + 0.5%")
+                .build();
+        CompiledRule compiledRule = CompiledRule.of(rule);
+        long amount = 150_000L;
+        long feeAmount = compiledRule.calculateFee(amount);
+
+        FeeCalculationResult typed = FeeCalculationResult.builder()
+                .amount(amount)
+                .currency(Currency.XOF)
+                .commissionAmount(feeAmount)
+                .ruleId(rule.getRuleId())
+                .transferType(TransferType.SAME_WALLET)
+                .calculationDetails(new CalculationDetails(
+                        compiledRule.getCalculationDetails(), feeAmount, amount, Currency.XOF, TransferType.SAME_WALLET))
+                .build();
+
+        // The map previously built for every response
+        Map<String, Object> calculationDetails = new HashMap<>();
+        calculationDetails.put("ruleId", rule.getRuleId());
+        calculationDetails.put("transferType", rule.getTransferType());
+        calculationDetails.put("percentage", rule.getPercentage());
+        calculationDetails.put("fixedAmount", rule.getFixedAmount());
+        calculationDetails.put("minAmount", rule.getMinAmount());
+        calculationDetails.put("maxAmount", rule.getMaxAmount());
+        calculationDetails.put("priority", rule.getPriority());
+        calculationDetails.put("kycLevel", rule.getKycLevel());
+        calculationDetails.put("finalAmount", feeAmount);
+        calculationDetails.put("ruleDescription", rule.getDescription());
+        calculationDetails.put("requestedAmount", amount);
+        calculationDetails.put("requestedCurrency", Currency.XOF);
+        calculationDetails.put("requestedTransferType", TransferType.SAME_WALLET);
+        FeeCalculationResponse mapBased = FeeCalculationResponse.builder()
+                .amount(amount)
+                .currency(Currency.XOF)
+                .commissionAmount(feeAmount)
+                .ruleId(rule.getRuleId())
+                .transferType(TransferType.SAME_WALLET)
+                .calculationDetails(calculationDetails)
+                .build();
+
+        assertThat(objectMapper.readTree(objectMapper.writeValueAsBytes(typed)))
+                .isEqualTo(objectMapper.readTree(objectMapper.writeValueAsBytes(mapBased)));
+    }
+}
@@ -0,0 +1,208 @@
+package com.payment.commission.repository;
+
+import com.payment.commission.domain.entity.CommissionTransaction;
+import com.payment.commission.domain.enums.CommissionStatus;
+import com.payment.commission.domain.id.UuidV7;
+import com.payment.common.enums.Currency;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests running the commission recording SQL against the migrated schema in PostgreSQL:
+ * the V8 deduplication and V12 partitioning, the idempotent inserts of {@link CommissionBatchRepository}
+ * through both the JDBC batch and the COPY path, and partition archiving.
+ * Skipped when Docker is unavailable.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class CommissionBatchRepositoryTest {
+
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    // Recorded twice before V8, in a month V12 creates a partition for
+    private static final UUID LEGACY_TRANSACTION_ID = UUID.randomUUID();
+    private static final LocalDateTime LEGACY_CREATED_AT = midMonth(YearMonth.now(ZoneOffset.UTC).minusMonths(24));
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    private static JdbcTemplate jdbcTemplate;
+    private static TransactionTemplate transaction;
+
+    @BeforeAll
+    static void migrate() {
+        // One session, so the session-local staging table can be inspected after a write
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword(), true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        flyway().target("7").load().migrate();
+        String insertLegacy = "INSERT INTO commission_transactions (transaction_id, currency, amount, created_at) " +
+                "VALUES (?, 'XOF', ?, ?)";
+        jdbcTemplate.update(insertLegacy, LEGACY_TRANSACTION_ID, 125L, Timestamp.valueOf(LEGACY_CREATED_AT));
+        jdbcTemplate.update(insertLegacy, LEGACY_TRANSACTION_ID, 250L, Timestamp.valueOf(LEGACY_CREATED_AT.plusDays(1)));
+        flyway().load().migrate();
+    }
+
+    @Test
+    void keepsEarliestOfDuplicateCommissions() {
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT amount FROM commission_transactions WHERE transaction_id = ?", Long.class, LEGACY_TRANSACTION_ID))
+                .containsExactly(125L);
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT amount FROM commission_transactions_duplicates WHERE transaction_id = ?",
+                Long.class, LEGACY_TRANSACTION_ID))
+                .containsExactly(250L);
+    }
+
+    @Test
+    void partitionsExistingCommissionsByMonth() {
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT tableoid::regclass::text FROM commission_transactions WHERE transaction_id = ?",
+                String.class, LEGACY_TRANSACTION_ID))
+                .isEqualTo(partitionOf(LEGACY_CREATED_AT));
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM commission_transaction_keys WHERE transaction_id = ?",
+                Long.class, LEGACY_TRANSACTION_ID))
+                .isEqualTo(1L);
+        // One partition per month from the oldest commission through three months ahead
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        assertThat(new CommissionPartitionRepository(jdbcTemplate).findPartitions().keySet())
+                .contains(YearMonth.from(LEGACY_CREATED_AT), current, current.plusMonths(3));
+    }
+
+    @Test
+    void recordsEachTransactionOnceWithJdbcBatch() {
+        assertRecordsEachTransactionOnce(new CommissionBatchRepository(jdbcTemplate, Integer.MAX_VALUE));
+    }
+
+    @Test
+    void recordsEachTransactionOnceWithCopy() {
+        assertRecordsEachTransactionOnce(new CommissionBatchRepository(jdbcTemplate, 1));
+    }
+
+    @Test
+    void recordsSingleCommissionOnce() {
+        CommissionBatchRepository repository = new CommissionBatchRepository(jdbcTemplate, 1);
+        UUID transactionId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+
+        assertThat(repository.insertCommission(commission(transactionId, now, null))).isTrue();
+        assertThat(repository.insertCommission(commission(transactionId, now, null))).isFalse();
+        assertThat(countCommissions(transactionId)).isEqualTo(1L);
+    }
+
+    @Test
+    void archivesPartitionButKeepsItsTransactionKeys() {
+        CommissionPartitionRepository partitions = new CommissionPartitionRepository(jdbcTemplate);
+        CommissionBatchRepository repository = new CommissionBatchRepository(jdbcTemplate, 1);
+        YearMonth month = YearMonth.now(ZoneOffset.UTC).minusMonths(30);
+        String partition = partitions.createPartition(month);
+        UUID transactionId = UUID.randomUUID();
+        assertThat(repository.insertCommission(commission(transactionId, midMonth(month), null))).isTrue();
+
+        partitions.archivePartition(partition);
+
+        assertThat(partitions.findPartitions()).doesNotContainKey(month);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM commission_archive." + partition, Long.class))
+                .isEqualTo(1L);
+        assertThat(countCommissions(transactionId)).isZero();
+        // A late redelivery is still recognized as recorded
+        assertThat(repository.insertCommission(commission(transactionId, LocalDateTime.now(), null))).isFalse();
+        assertThat(countCommissions(transactionId)).isZero();
+    }
+
+    private static void assertRecordsEachTransactionOnce(CommissionBatchRepository repository) {
+        LocalDateTime thisMonth = midMonth(YearMonth.now(ZoneOffset.UTC));
+        LocalDateTime nextMonth = midMonth(YearMonth.now(ZoneOffset.UTC).plusMonths(1));
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID recorded = UUID.randomUUID();
+        String basis = "{\"ruleId\": null, \"description\": \"100 XOF, \\\"quoted\\\" + 0.5%\"}";
+        transaction.executeWithoutResult(status ->
+                repository.insertCommissions(List.of(commission(recorded, thisMonth, null))));
+
+        List<CommissionTransaction> commissions = List.of(
+                commission(first, thisMonth, basis),
+                commission(second, nextMonth, null),
+                // Duplicate within the staged batch: loses the claim to the first one
+                commission(first, nextMonth, null),
+                // Already recorded by an earlier batch
+                commission(recorded, thisMonth, null));
+        Integer inserted = transaction.execute(status -> repository.insertCommissions(commissions));
+
+        assertThat(inserted).isEqualTo(2);
+        assertThat(countCommissions(first)).isEqualTo(1L);
+        assertThat(countCommissions(second)).isEqualTo(1L);
+        assertThat(countCommissions(recorded)).isEqualTo(1L);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT commission_id FROM commission_transactions WHERE transaction_id = ?", UUID.class, first))
+                .isEqualTo(commissions.get(0).getCommissionId());
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT tableoid::regclass::text FROM commission_transactions WHERE transaction_id = ?",
+                String.class, second))
+                .isEqualTo(partitionOf(nextMonth));
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT calculation_basis->>'description' FROM commission_transactions WHERE transaction_id = ?",
+                String.class, first))
+                .isEqualTo("100 XOF, \"quoted\" + 0.5%");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT rule_id IS NULL AND calculation_basis IS NULL FROM commission_transactions " +
+                "WHERE transaction_id = ?", Boolean.class, second))
+                .isTrue();
+        // Staged rows are dropped on commit
+        Long staged = transaction.execute(status -> jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM commission_transactions_staging", Long.class));
+        assertThat(staged).isZero();
+    }
+
+    private static FluentConfiguration flyway() {
+        return Flyway.configure().dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+    }
+
+    private static long countCommissions(UUID transactionId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM commission_transactions WHERE transaction_id = ?", Long.class, transactionId);
+    }
+
+    private static CommissionTransaction commission(UUID transactionId, LocalDateTime createdAt, String basis) {
+        return CommissionTransaction.builder()
+                .commissionId(UuidV7.randomUuid())
+                .transactionId(transactionId)
+                .currency(Currency.XOF)
+                .amount(850L)
+                .calculationBasis(basis)
+                .status(CommissionStatus.COMPLETED)
+                .settled(false)
+                .createdAt(createdAt)
+                .build();
+    }
+
+    // Noon on the 15th, in the JVM time zone, is within the same month in UTC
+    private static LocalDateTime midMonth(YearMonth month) {
+        return month.atDay(15).atTime(12, 0);
+    }
+
+    private static String partitionOf(LocalDateTime createdAt) {
+        return "commission_transactions_p" + createdAt.format(PARTITION_MONTH);
+    }
+}
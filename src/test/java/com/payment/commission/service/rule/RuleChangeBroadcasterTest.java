@@ -0,0 +1,93 @@
+package com.payment.commission.service.rule;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.payment.commission.cache.CacheSpec;
+import com.payment.commission.cache.TwoLevelCache;
+import com.payment.commission.cache.TwoLevelCacheManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the local cache eviction of {@link RuleChangeBroadcaster}
+ */
+class RuleChangeBroadcasterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final CommissionRuleRegistry commissionRuleRegistry = mock(CommissionRuleRegistry.class);
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private final TwoLevelCacheManager cacheManager = cacheManager();
+    private final RuleChangeBroadcaster broadcaster =
+            new RuleChangeBroadcaster(commissionRuleRegistry, redisTemplate, cacheManager, objectMapper);
+
+    @Test
+    void evictsChangedRuleFromLocalCaches() throws Exception {
+        UUID changed = UUID.randomUUID();
+        UUID unchanged = UUID.randomUUID();
+        Cache rules = cacheManager.getCache("commission-rules");
+        Cache fees = cacheManager.getCache("commission-calculation");
+        // Outside a transaction the decorator writes through immediately
+        assertThat(rules).isInstanceOf(TransactionAwareCacheDecorator.class);
+        rules.put(changed, "rule");
+        rules.put(unchanged, "rule");
+        fees.put(changed + ":10000:XOF:SAME_WALLET:2024-01-01T00:00", 150L);
+        fees.put(unchanged + ":10000:XOF:SAME_WALLET:2024-01-01T00:00", 150L);
+
+        broadcaster.onMessage(notification(7L, changed), null);
+
+        assertThat(localCache("commission-rules").asMap()).containsOnlyKeys(unchanged);
+        assertThat(localCache("commission-calculation").asMap())
+                .containsOnlyKeys(unchanged + ":10000:XOF:SAME_WALLET:2024-01-01T00:00");
+        verify(commissionRuleRegistry).reload(7L);
+    }
+
+    @Test
+    void clearsLocalCachesWhenBehindClusterVersion() {
+        @SuppressWarnings("unchecked")
+        ValueOperations<String, String> values = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        when(values.get(RuleChangeBroadcaster.VERSION_KEY)).thenReturn("3");
+        when(commissionRuleRegistry.current()).thenReturn(RuleSnapshot.EMPTY);
+        cacheManager.getCache("commission-rules").put(UUID.randomUUID(), "rule");
+        cacheManager.getCache("commission-calculation").put(UUID.randomUUID() + ":1:XOF:SAME_WALLET:x", 1L);
+
+        broadcaster.checkVersion();
+
+        assertThat(localCache("commission-rules").asMap()).isEmpty();
+        assertThat(localCache("commission-calculation").asMap()).isEmpty();
+        verify(commissionRuleRegistry).reload(3L);
+    }
+
+    private DefaultMessage notification(long version, UUID ruleId) throws Exception {
+        byte[] body = objectMapper.writeValueAsString(
+                new RuleChangeNotification(version, ruleId, "other-instance")).getBytes(StandardCharsets.UTF_8);
+        return new DefaultMessage(RuleChangeBroadcaster.CHANNEL.getBytes(StandardCharsets.UTF_8), body);
+    }
+
+    private com.github.benmanes.caffeine.cache.Cache<Object, Object> localCache(String name) {
+        TransactionAwareCacheDecorator decorator = (TransactionAwareCacheDecorator) cacheManager.getCache(name);
+        return ((TwoLevelCache) decorator.getTargetCache()).getLocalCache();
+    }
+
+    private static TwoLevelCacheManager cacheManager() {
+        CacheSpec localOnly = new CacheSpec();
+        localOnly.setRedisEnabled(false);
+        TwoLevelCacheManager cacheManager = new TwoLevelCacheManager(mock(RedisCacheManager.class),
+                Map.of("commission-rules", localOnly, "commission-calculation", localOnly));
+        cacheManager.afterPropertiesSet();
+        return cacheManager;
+    }
+}
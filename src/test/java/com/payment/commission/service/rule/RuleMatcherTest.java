@@ -0,0 +1,112 @@
+package com.payment.commission.service.rule;
+
+import com.payment.commission.domain.entity.CommissionRule;
+import com.payment.common.enums.Currency;
+import com.payment.common.enums.KYCLevel;
+import com.payment.common.enums.TransferType;
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.Combinators;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.Provide;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Property-based tests proving {@link RuleMatcher} picks the same rule as a
+ * linear scan in priority order
+ */
+class RuleMatcherTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @Property(tries = 2_000)
+    void matchesLinearScan(@ForAll("ruleSets") List<CompiledRule> rules,
+                           @ForAll("amounts") long amount,
+                           @ForAll TransferType transferType,
+                           @ForAll("kycLevels") KYCLevel kycLevel) {
+        RuleMatcher matcher = new RuleMatcher(rules);
+
+        assertThat(matcher.match(amount, Currency.XOF, transferType, kycLevel))
+                .isSameAs(linearScan(rules, amount, Currency.XOF, transferType, kycLevel));
+    }
+
+    @Test
+    void prefersHigherPriorityOverlappingRule() {
+        CompiledRule wide = rule(0L, null, null, 1, 0);
+        CompiledRule narrow = rule(5_001L, 10_000L, KYCLevel.LEVEL_2, 5, 0);
+        RuleMatcher matcher = new RuleMatcher(List.of(wide, narrow));
+
+        assertThat(matcher.match(7_000L, Currency.XOF, TransferType.SAME_WALLET, KYCLevel.LEVEL_2)).isSameAs(narrow);
+        assertThat(matcher.match(7_000L, Currency.XOF, TransferType.SAME_WALLET, KYCLevel.LEVEL_1)).isSameAs(wide);
+        assertThat(matcher.match(10_001L, Currency.XOF, TransferType.SAME_WALLET, KYCLevel.LEVEL_2)).isSameAs(wide);
+        assertThat(matcher.match(-1L, Currency.XOF, TransferType.SAME_WALLET, null)).isNull();
+        assertThat(matcher.match(7_000L, Currency.XAF, TransferType.SAME_WALLET, null)).isNull();
+    }
+
+    @Provide
+    Arbitrary<List<CompiledRule>> ruleSets() {
+        Arbitrary<Long> bounds = Arbitraries.longs().between(0L, 200L).injectNull(0.2);
+        Arbitrary<KYCLevel> kycLevels = Arbitraries.of(KYCLevel.class).injectNull(0.3);
+        Arbitrary<CompiledRule> rules = Combinators.combine(
+                bounds, bounds, kycLevels, Arbitraries.integers().between(0, 3), Arbitraries.integers().between(0, 2),
+                Arbitraries.of(TransferType.class)
+        ).as((low, high, kyc, priority, fromDays, transferType) ->
+                rule(low, high, kyc, priority, fromDays, transferType));
+        return rules.list().ofMaxSize(12);
+    }
+
+    @Provide
+    Arbitrary<Long> amounts() {
+        return Arbitraries.longs().between(-5L, 205L);
+    }
+
+    @Provide
+    Arbitrary<KYCLevel> kycLevels() {
+        return Arbitraries.of(KYCLevel.class).injectNull(0.2);
+    }
+
+    private static CompiledRule linearScan(List<CompiledRule> rules, long amount, Currency currency,
+                                           TransferType transferType, KYCLevel kycLevel) {
+        return rules.stream()
+                .filter(rule -> rule.getCurrency() == currency && rule.getTransferType() == transferType)
+                .filter(rule -> !rule.isHasMinTransaction() || amount >= rule.getMinTransactionValue())
+                .filter(rule -> !rule.isHasMaxTransaction() || amount <= rule.getMaxTransactionValue())
+                .filter(rule -> rule.getKycLevel() == null || rule.getKycLevel() == KYCLevel.ANY
+                        || rule.getKycLevel() == kycLevel)
+                .min(Comparator.comparingInt(CompiledRule::getPriority).reversed()
+                        .thenComparing(CompiledRule::getEffectiveFrom, Comparator.nullsLast(Comparator.reverseOrder()))
+                        .thenComparing(CompiledRule::getRuleId))
+                .orElse(null);
+    }
+
+    private static CompiledRule rule(Long minTransaction, Long maxTransaction, KYCLevel kycLevel,
+                                     int priority, int fromDays) {
+        return rule(minTransaction, maxTransaction, kycLevel, priority, fromDays, TransferType.SAME_WALLET);
+    }
+
+    private static CompiledRule rule(Long minTransaction, Long maxTransaction, KYCLevel kycLevel,
+                                     int priority, int fromDays, TransferType transferType) {
+        return CompiledRule.of(CommissionRule.builder()
+                .ruleId(UUID.randomUUID())
+                .currency(Currency.XOF)
+                .transferType(transferType)
+                .minTransaction(minTransaction)
+                .maxTransaction(maxTransaction)
+                .kycLevel(kycLevel)
+                .percentage(new BigDecimal("0.0050"))
+                .fixedAmount(100L)
+                .isActive(true)
+                .priority(priority)
+                .effectiveFrom(BASE.plusDays(fromDays))
+                .build());
+    }
+}
@@ -0,0 +1,73 @@
+package com.payment.commission.service.rule;
+
+import com.payment.commission.domain.entity.CommissionRule;
+import com.payment.common.enums.Currency;
+import com.payment.common.enums.KYCLevel;
+import com.payment.common.enums.TransferType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the rule epochs of {@link RuleSnapshot}
+ */
+class RuleSnapshotTest {
+
+    @Test
+    void switchesTariffAtEffectiveBoundary() {
+        LocalDateTime midnight = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+        CommissionRule current = rule(LocalDateTime.now().minusDays(30), midnight);
+        CommissionRule next = rule(midnight, null);
+
+        RuleSnapshot snapshot = RuleSnapshot.compile(List.of(current, next), 1L);
+
+        assertThat(snapshot.getEpochEnd()).isEqualTo(midnight);
+        assertThat(snapshot.isEffective(current.getRuleId())).isTrue();
+        assertThat(snapshot.isEffective(next.getRuleId())).isFalse();
+        assertThat(snapshot.match(10_000L, Currency.XOF, TransferType.SAME_WALLET, KYCLevel.LEVEL_1).getRuleId())
+                .isEqualTo(current.getRuleId());
+
+        RuleSnapshot afterMidnight = snapshot.nextEpoch();
+
+        assertThat(afterMidnight.getEpochStart()).isEqualTo(midnight);
+        assertThat(afterMidnight.getEpochEnd()).isNull();
+        assertThat(afterMidnight.isEffective(current.getRuleId())).isFalse();
+        assertThat(afterMidnight.isEffective(next.getRuleId())).isTrue();
+        assertThat(afterMidnight.match(10_000L, Currency.XOF, TransferType.SAME_WALLET, KYCLevel.LEVEL_1).getRuleId())
+                .isEqualTo(next.getRuleId());
+        assertThat(afterMidnight.nextEpoch()).isNull();
+    }
+
+    @Test
+    void ignoresBoundariesOfInactiveRules() {
+        CommissionRule inactive = rule(LocalDateTime.now().plusHours(1), null);
+        inactive.setIsActive(false);
+
+        RuleSnapshot snapshot = RuleSnapshot.compile(List.of(inactive), 1L);
+
+        assertThat(snapshot.getEpochEnd()).isNull();
+        assertThat(snapshot.get(inactive.getRuleId())).isNotNull();
+        assertThat(snapshot.isEffective(inactive.getRuleId())).isFalse();
+    }
+
+    private static CommissionRule rule(LocalDateTime effectiveFrom, LocalDateTime effectiveTo) {
+        return CommissionRule.builder()
+                .ruleId(UUID.randomUUID())
+                .currency(Currency.XOF)
+                .transferType(TransferType.SAME_WALLET)
+                .kycLevel(KYCLevel.ANY)
+                .percentage(new BigDecimal("0.0050"))
+                .fixedAmount(100L)
+                .isActive(true)
+                .priority(1)
+                .effectiveFrom(effectiveFrom)
+                .effectiveTo(effectiveTo)
+                .build();
+    }
+}
@@ -0,0 +1,126 @@
+package com.payment.commission.service.writer;
+
+import com.payment.commission.dto.event.RejectedTransactionEvent;
+import com.payment.commission.dto.event.TransactionCompletedEvent;
+import com.payment.commission.service.CommissionService;
+import com.payment.common.enums.Currency;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the flushing, failure isolation and back-pressure of {@link CommissionWriter}
+ */
+class CommissionWriterTest {
+
+    private final CommissionService commissionService = mock(CommissionService.class);
+    private CommissionWriter writer;
+
+    @AfterEach
+    void stop() {
+        writer.destroy();
+    }
+
+    @Test
+    void flushesConcurrentSubmissionsTogether() {
+        // Flushes only once both submissions are pending
+        writer = writer(2, 1_000);
+        TransactionCompletedEvent first = event();
+        TransactionCompletedEvent second = event();
+
+        CompletableFuture<Void> firstWrite = CompletableFuture.runAsync(() -> writer.write(List.of(first)));
+        writer.write(List.of(second));
+        firstWrite.join();
+
+        verify(commissionService).recordCommissions(argThat(events ->
+                events.size() == 2 && events.containsAll(List.of(first, second))));
+    }
+
+    @Test
+    void returnsEachCallerItsOwnRejectedEvents() {
+        writer = writer(2, 1_000);
+        TransactionCompletedEvent valid = event();
+        TransactionCompletedEvent unpriceable = event();
+        RejectedTransactionEvent rejection =
+                new RejectedTransactionEvent(unpriceable, new IllegalArgumentException("no effective rule"));
+        when(commissionService.recordCommissions(anyList())).thenReturn(List.of(rejection));
+
+        CompletableFuture<List<RejectedTransactionEvent>> validWrite =
+                CompletableFuture.supplyAsync(() -> writer.write(List.of(valid)));
+        List<RejectedTransactionEvent> rejected = writer.write(List.of(unpriceable));
+
+        assertThat(rejected).containsExactly(rejection);
+        assertThat(validWrite.join()).isEmpty();
+        verify(commissionService).recordCommissions(anyList());
+    }
+
+    @Test
+    void failsOnlyTheSubmissionThatStillFailsOnItsOwn() {
+        writer = writer(2, 1_000);
+        TransactionCompletedEvent valid = event();
+        TransactionCompletedEvent invalid = event();
+        when(commissionService.recordCommissions(argThat(events -> events.contains(invalid))))
+                .thenThrow(new IllegalArgumentException("invalid transaction"));
+
+        CompletableFuture<Void> validWrite = CompletableFuture.runAsync(() -> writer.write(List.of(valid)));
+        assertThatThrownBy(() -> writer.write(List.of(invalid)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("invalid transaction");
+        validWrite.join();
+
+        verify(commissionService).recordCommissions(List.of(valid));
+        verify(commissionService).recordCommissions(List.of(invalid));
+    }
+
+    @Test
+    void rejectsSubmissionsWhileBufferStaysFull() throws Exception {
+        writer = writer(1, 1);
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(commissionService.recordCommissions(anyList())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            return List.of();
+        });
+
+        CompletableFuture<Void> pendingWrite = CompletableFuture.runAsync(() -> writer.write(List.of(event())));
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> writer.write(List.of(event())))
+                .isInstanceOf(RejectedExecutionException.class);
+
+        release.countDown();
+        pendingWrite.get(5, TimeUnit.SECONDS);
+        verify(commissionService).recordCommissions(anyList());
+    }
+
+    private CommissionWriter writer(int flushSize, int maxPending) {
+        return new CommissionWriter(commissionService, new SimpleMeterRegistry(), flushSize,
+                Duration.ofSeconds(5), maxPending, Duration.ofMillis(200), 1);
+    }
+
+    private static TransactionCompletedEvent event() {
+        return TransactionCompletedEvent.builder()
+                .transactionId(UUID.randomUUID())
+                .ruleId(UUID.randomUUID())
+                .amount(10_000L)
+                .currency(Currency.XOF)
+                .build();
+    }
+}